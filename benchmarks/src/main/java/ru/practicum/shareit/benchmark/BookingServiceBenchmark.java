@@ -0,0 +1,24 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    @Param({"ALL", "WAITING", "REJECTED", "PAST", "CURRENT", "FUTURE"})
+    public String state;
+
+    @Benchmark
+    public List<BookingDto> getBookingsByBookerId(ServerState server) {
+        return server.bookingService.getBookingsByBookerId(server.bookerId, state, 0, 20);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// Throughput и перцентили (p99 в отчёте SampleTime) Tomcat на пуле платформенных потоков и на виртуальных.
+// virtualThreads=true требует запуска на Java 21+.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(200)
+@Fork(1)
+public class HttpLoadBenchmark {
+
+    @Benchmark
+    public String getBookingsByBooker(HttpServerState server) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.url("/bookings?state=ALL&from=0&size=20")))
+                .header("X-Sharer-User-Id", String.valueOf(server.bookerId))
+                .GET()
+                .build();
+        return server.httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
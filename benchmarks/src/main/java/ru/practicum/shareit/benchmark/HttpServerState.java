@@ -0,0 +1,37 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.net.http.HttpClient;
+
+@State(Scope.Benchmark)
+public class HttpServerState extends ServerState {
+
+    // На Java ниже 21 вариант true завершается ошибкой до старта сервера, JMH продолжает с остальными параметрами
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Override
+    protected SpringApplicationBuilder application() {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("virtualThreads=true требует Java 21+, текущая версия "
+                    + Runtime.version());
+        }
+        return super.application()
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0",
+                        "server.tomcat.threads.max=50",
+                        "spring.datasource.hikari.maximum-pool-size=50",
+                        "shareit.threads.virtual=" + virtualThreads);
+    }
+
+    String url(String path) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + path;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Booking booking;
+
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.com").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@mail.com").build();
+        ItemRequest itemRequest = ItemRequest.builder().id(3L).description("Нужна дрель").user(booker)
+                .created(LocalDateTime.now()).build();
+        item = Item.builder().id(4L).name("Дрель").description("Дрель с ударным режимом").available(true)
+                .user(owner).itemRequest(itemRequest).build();
+        booking = Booking.builder().id(5L).item(item).user(booker).status(Status.APPROVED)
+                .startTime(LocalDateTime.now().plusDays(1)).endTime(LocalDateTime.now().plusDays(2)).build();
+    }
+
+    @Benchmark
+    public BookingDto mapBookingEntityToBookingDto() {
+        return BookingMapper.mapBookingEntityToBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto mapItemToItemDto() {
+        return ItemMapper.mapItemToItemDto(item);
+    }
+}
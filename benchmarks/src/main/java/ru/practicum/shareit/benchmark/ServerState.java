@@ -0,0 +1,115 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@State(Scope.Benchmark)
+public class ServerState {
+
+    private static final int USERS = 500;
+
+    private static final int ITEMS_PER_USER = 10;
+
+    private static final int BOOKINGS_PER_ITEM = 4;
+
+    private final Random random = new Random(42);
+
+    ConfigurableApplicationContext context;
+
+    BookingService bookingService;
+
+    ItemService itemService;
+
+    long ownerId;
+
+    long bookerId;
+
+    long itemId;
+
+    protected SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.sql.init.platform=h2",
+                        "shareit.cache.invalidation=in-jvm",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN");
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = application().run();
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> seed());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder().name("user" + i).email("user" + i + "@mail.com").build());
+        }
+        users = userRepository.saveAll(users);
+
+        List<Item> items = new ArrayList<>();
+        for (User owner : users) {
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                items.add(Item.builder().name("item" + i + " " + owner.getName())
+                        .description("description of item" + i).available(random.nextBoolean())
+                        .user(owner).build());
+            }
+        }
+        items = itemRepository.saveAll(items);
+
+        List<Booking> bookings = new ArrayList<>();
+        Status[] statuses = Status.values();
+        for (Item item : items) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                User booker = users.get(random.nextInt(USERS));
+                LocalDateTime start = LocalDateTime.now().plusHours(random.nextInt(24 * 60) - 24 * 30);
+                bookings.add(Booking.builder().item(item).user(booker)
+                        .status(statuses[random.nextInt(statuses.length)])
+                        .startTime(start).endTime(start.plusHours(1 + random.nextInt(72))).build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+
+        Item item = items.get(0);
+        itemId = item.getId();
+        ownerId = item.getUser().getId();
+        bookerId = users.get(USERS / 2).getId();
+    }
+}
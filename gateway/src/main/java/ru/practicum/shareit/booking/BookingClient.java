@@ -1,16 +1,20 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,42 +22,59 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
-    }
-
-    public ResponseEntity<Object> getBookingsByBooker(long bookerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", bookerId, parameters);
-    }
-
-    public ResponseEntity<Object> getBookingsByOwner(long ownerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
-    }
-
-    public ResponseEntity<Object> bookItem(long userId, BookingDto requestDto) {
+    public BookingClient(ServerClientFactory clientFactory) {
+        super(clientFactory, API_PREFIX);
+    }
+
+    private static Map<String, Object> listParameters(BookingState state, Integer from, Integer size,
+                                                      @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
+
+    private static String listQuery(@Nullable String cursor) {
+        return cursor == null
+                ? "?state={state}&from={from}&size={size}"
+                : "?state={state}&from={from}&size={size}&cursor={cursor}";
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsByBooker(long bookerId, BookingState state,
+                                                            Integer from, Integer size, @Nullable String cursor) {
+        return get(listQuery(cursor), bookerId, listParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(long ownerId, BookingState state,
+                                                           Integer from, Integer size, @Nullable String cursor) {
+        return get("/owner" + listQuery(cursor), ownerId, listParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookingDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> bookItems(long userId, BookingBatchDto requestDto) {
+        return post("/batch", userId, requestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> updateBooking(long ownerId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(long ownerId, long bookingId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, ownerId);
     }
+
+    public Mono<ResponseEntity<Object>> updateBookings(long ownerId, BookingDecisionBatchDto decisionBatchDto) {
+        return patch("/bulk", ownerId, decisionBatchDto);
+    }
+
+    public void exportBookings(long userId, String role, HttpServletResponse response) {
+        stream(HttpMethod.GET, "/export?role={role}", userId, Map.of("role", role), null, null, response);
+    }
 }
@@ -2,12 +2,17 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -22,48 +27,75 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                @RequestBody @Valid BookingDto requebookItemRequestDtotDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @RequestBody @Valid BookingDto requebookItemRequestDtotDto) {
         log.info("Creating booking {}, userId={}", requebookItemRequestDtotDto, userId);
         return bookingClient.bookItem(userId, requebookItemRequestDtotDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestBody @Valid BookingBatchDto bookingBatchDto) {
+        log.info("Creating {} bookings, userId={}", bookingBatchDto.getBookings().size(), userId);
+        return bookingClient.bookItems(userId, bookingBatchDto);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping(value = "/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                @RequestParam(value = "approved") boolean approved,
-                                                @PathVariable long bookingId) {
+    public Mono<ResponseEntity<Object>> updateBooking(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                      @RequestParam(value = "approved") boolean approved,
+                                                      @PathVariable long bookingId) {
         log.info("User id={} updating booking id={}, approved={}", ownerId, bookingId, approved);
         return bookingClient.updateBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping(value = "/bulk")
+    public Mono<ResponseEntity<Object>> updateBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                       @RequestBody @Valid BookingDecisionBatchDto decisionBatchDto) {
+        log.info("User id={} deciding {} bookings", ownerId, decisionBatchDto.getDecisions().size());
+        return bookingClient.updateBookings(ownerId, decisionBatchDto);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getBookingsByBooker(
+    public Mono<ResponseEntity<Object>> getBookingsByBooker(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get booking by booker with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookingsByBooker(userId, state, from, size);
+        return bookingClient.getBookingsByBooker(userId, state, from, size, cursor);
     }
 
     @GetMapping(value = "/owner")
-    public ResponseEntity<Object> getBookingsByOwner(
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(
             @RequestHeader("X-Sharer-User-Id") long ownerId,
             @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get booking by owner with state {}, userId={}, from={}, size={}", state, ownerId, from, size);
-        return bookingClient.getBookingsByOwner(ownerId, state, from, size);
+        return bookingClient.getBookingsByOwner(ownerId, state, from, size, cursor);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                               @RequestParam(name = "role", defaultValue = "booker") String role,
+                               HttpServletResponse response) {
+        if (!role.equals("booker") && !role.equals("owner")) {
+            throw new IllegalArgumentException("Unknown role: " + role);
+        }
+        log.info("Export bookings, userId={}, role={}", userId, role);
+        bookingClient.exportBookings(userId, role, response);
     }
 }
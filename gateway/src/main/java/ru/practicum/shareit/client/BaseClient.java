@@ -2,107 +2,264 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class BaseClient {
+    // Заголовки соединения gateway - сервер, клиенту gateway их передавать нельзя
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization", "content-length");
+
     protected final RestTemplate rest;
 
+    @Nullable
+    protected final WebClient webClient;
+
+    @Nullable
+    private final RestTemplate streamingRest;
+
+    @Nullable
+    private final GatewayResponseCache responseCache;
+
+    @Nullable
+    private final ClientResilience resilience;
+
+    @Nullable
+    private final RequestCoalescer requestCoalescer;
+
+    // Блокирующие вызовы RestTemplate не должны занимать потоки Reactor parallel, на которых идут повторы
+    private final Scheduler blockingScheduler;
+
+    private final String apiPrefix;
+
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
+        this.webClient = null;
+        this.blockingScheduler = Schedulers.boundedElastic();
+        this.streamingRest = null;
+        this.responseCache = null;
+        this.resilience = null;
+        this.requestCoalescer = null;
+        this.apiPrefix = "";
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    public BaseClient(ServerClientFactory clientFactory, String apiPrefix) {
+        this.rest = clientFactory.restTemplate(apiPrefix);
+        this.webClient = clientFactory.webClient(apiPrefix);
+        this.blockingScheduler = clientFactory.blockingScheduler();
+        this.streamingRest = clientFactory.streamingRestTemplate(apiPrefix);
+        this.responseCache = clientFactory.responseCache();
+        this.resilience = clientFactory.resilience(apiPrefix);
+        this.requestCoalescer = clientFactory.requestCoalescer();
+        this.apiPrefix = apiPrefix;
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static HttpHeaders forwardedHeaders(@Nullable HttpHeaders headers) {
+        HttpHeaders forwarded = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    forwarded.put(name, values);
+                }
+            });
         }
+        return forwarded;
+    }
 
-        return responseBuilder.build();
+    private static ResponseEntity<Object> prepareGatewayResponse(int status, @Nullable HttpHeaders headers,
+                                                                 @Nullable byte[] body) {
+        return ResponseEntity.status(status).headers(forwardedHeaders(headers)).body(body);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    // Потоковая передача для больших загрузок и выгрузок: тело запроса и ответ копируются без буферизации
+    // в памяти. Кэш, объединение запросов и повторы здесь не применяются
+    protected void stream(HttpMethod method, String path, long userId, @Nullable Map<String, Object> parameters,
+                          @Nullable MediaType contentType, @Nullable InputStream body,
+                          HttpServletResponse response) {
+        RestTemplate template = streamingRest != null ? streamingRest : rest;
+        template.execute(path, method, request -> {
+            request.getHeaders().addAll(defaultHeaders(userId));
+            request.getHeaders().setAccept(List.of(MediaType.ALL));
+            if (body != null) {
+                request.getHeaders().setContentType(contentType);
+                StreamUtils.copy(body, request.getBody());
+            }
+        }, serverResponse -> {
+            response.setStatus(serverResponse.getRawStatusCode());
+            forwardedHeaders(serverResponse.getHeaders()).forEach((name, values) ->
+                    values.forEach(value -> response.addHeader(name, value)));
+            copy(serverResponse.getBody(), response);
+            return null;
+        }, parameters != null ? parameters : Collections.emptyMap());
+    }
+
+    private static void copy(InputStream from, HttpServletResponse response) throws IOException {
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = from.read(buffer)) != -1) {
+            response.getOutputStream().write(buffer, 0, read);
+            // Сервер пишет результаты построчно по мере обработки, клиент получает их без задержки
+            response.flushBuffer();
+        }
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        String client = apiPrefix.isEmpty() ? "" : apiPrefix.substring(1);
+        if (method != HttpMethod.GET) {
+            Mono<ResponseEntity<Object>> write = send(method, path, defaultHeaders(userId), parameters, body);
+            if (requestCoalescer == null || !requestCoalescer.isEnabled(client)) {
+                return write;
+            }
+            // GET после ответа на запись не должен присоединиться к GET, начатому до неё
+            return write.doOnTerminate(() -> requestCoalescer.invalidate(client));
+        }
+        String key = requestKey(path, userId, parameters);
+        if (requestCoalescer != null && requestCoalescer.isEnabled(client)) {
+            return requestCoalescer.coalesce(client, key, () -> sendGet(path, userId, parameters, key));
+        }
+        return sendGet(path, userId, parameters, key);
+    }
+
+    private Mono<ResponseEntity<Object>> sendGet(String path, Long userId, @Nullable Map<String, Object> parameters, String key) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (responseCache == null) {
+            return send(HttpMethod.GET, path, headers, parameters, null);
+        }
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        return send(HttpMethod.GET, path, headers, parameters, null).map(response -> {
+            if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                return responseCache.revalidated(cached);
+            }
+            if (response.getStatusCode().is2xxSuccessful()) {
+                responseCache.put(key, response);
+            }
+            return response;
+        });
+    }
+
+    private <T> Mono<ResponseEntity<Object>> send(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (webClient != null) {
+            Mono<ResponseEntity<Object>> call = exchange(method, path, headers, parameters, body);
+            return resilience != null ? resilience.decorate(call, method == HttpMethod.GET) : call;
+        }
+        Mono<ResponseEntity<Object>> call = Mono.fromCallable(() -> exchangeBlocking(method, path, headers, parameters, body));
+        if (resilience == null) {
+            return call.subscribeOn(blockingScheduler);
+        }
+        return resilience.decorate(call, method == HttpMethod.GET, blockingScheduler);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> {
+            int status = response.rawStatusCode();
+            HttpHeaders responseHeaders = response.headers().asHttpHeaders();
+            return response.bodyToMono(byte[].class)
+                    .map(bytes -> prepareGatewayResponse(status, responseHeaders, bytes))
+                    .defaultIfEmpty(prepareGatewayResponse(status, responseHeaders, null));
+        });
+    }
+
+    private <T> ResponseEntity<Object> exchangeBlocking(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCodeValue(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+
+    private String requestKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return apiPrefix + path + (parameters != null ? new TreeMap<>(parameters) : "") + "#" + userId;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.client;
+
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+
+@Value
+public class CachedResponse {
+
+    String etag;
+
+    int status;
+
+    HttpHeaders headers;
+
+    byte[] body;
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+public class ClientResilience {
+
+    private final Bulkhead bulkhead;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Retry retry;
+
+    public ClientResilience(Bulkhead bulkhead, CircuitBreaker circuitBreaker, Retry retry) {
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.retry = retry;
+    }
+
+    // Retry снаружи circuit breaker, bulkhead внутри: повторы не обходят открытый breaker,
+    // а каждая попытка занимает слот bulkhead только на время запроса
+    public Mono<ResponseEntity<Object>> decorate(Mono<ResponseEntity<Object>> call, boolean idempotent) {
+        return decorate(call, idempotent, null);
+    }
+
+    // Для блокирующих вызовов: ожидание слота bulkhead и сам вызов каждой попытки выполняются на scheduler,
+    // а не на потоке Reactor parallel, с которого RetryOperator переподписывается после паузы
+    public Mono<ResponseEntity<Object>> decorate(Mono<ResponseEntity<Object>> call, boolean idempotent,
+                                                 @Nullable Scheduler scheduler) {
+        Mono<ResponseEntity<Object>> decorated = call
+                .flatMap(response -> response.getStatusCode().is5xxServerError()
+                        ? Mono.error(new ServerErrorException(response))
+                        : Mono.just(response))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+        if (scheduler != null) {
+            decorated = decorated.subscribeOn(scheduler);
+        }
+        if (idempotent) {
+            decorated = decorated.transformDeferred(RetryOperator.of(retry));
+        }
+        return decorated.onErrorResume(ServerErrorException.class, e -> Mono.just(e.getResponse()));
+    }
+}
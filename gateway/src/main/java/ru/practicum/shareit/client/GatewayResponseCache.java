@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+public class GatewayResponseCache {
+
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Cache<String, CachedResponse> cache;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter bytesSaved;
+
+    public GatewayResponseCache(@Value("${shareit-server.response-cache.max-size}") DataSize maxSize,
+                                @Value("${shareit-server.response-cache.expire-after-write}") Duration expireAfterWrite,
+                                MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, CachedResponse>weigher((key, response) ->
+                        key.length() + response.getBody().length + ENTRY_OVERHEAD)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        hits = Counter.builder("gateway.response.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("gateway.response.cache.requests").tag("result", "miss").register(meterRegistry);
+        bytesSaved = Counter.builder("gateway.response.cache.bytes.saved").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("gateway.response.cache.size", cache, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    @Nullable
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    // Сервер подтвердил (304), что сохранённый ответ актуален
+    public ResponseEntity<Object> revalidated(CachedResponse cached) {
+        hits.increment();
+        bytesSaved.increment(cached.getBody().length);
+        return ResponseEntity.status(cached.getStatus()).headers(cached.getHeaders()).body(cached.getBody());
+    }
+
+    public void put(String key, ResponseEntity<Object> response) {
+        String etag = response.getHeaders().getETag();
+        if (etag == null || !(response.getBody() instanceof byte[])) {
+            cache.invalidate(key);
+            return;
+        }
+        misses.increment();
+        cache.put(key, new CachedResponse(etag, response.getStatusCodeValue(), response.getHeaders(),
+                (byte[]) response.getBody()));
+    }
+}
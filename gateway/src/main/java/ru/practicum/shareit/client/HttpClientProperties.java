@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 100;
+
+    // Лимиты по адресам вида http://host:port, переопределяют maxPerRoute. Ключ задаётся только в квадратных
+    // скобках: shareit-server.http-client.routes[http://host:9090]=50. Без скобок relaxed binding выбрасывает
+    // из ключа ':' и '/', и лимит молча достаётся несуществующему хосту httphost9090
+    private Map<String, Integer> routes = new HashMap<>();
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
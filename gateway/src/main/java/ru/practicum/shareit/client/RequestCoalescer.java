@@ -0,0 +1,81 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+
+    private final boolean enabled;
+
+    private final Set<String> clients;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> upstreamCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> mergedCounters = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.enabled}") boolean enabled,
+                            @Value("${shareit-server.coalescing.clients}") Set<String> clients,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clients = clients;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled(String client) {
+        return enabled && clients.contains(client);
+    }
+
+    // Одинаковые GET, пришедшие пока первый ещё выполняется, получают его результат. Запись удаляется по
+    // завершении запроса, поэтому следующий запрос снова идёт на сервер и устаревших ответов не бывает
+    public Mono<ResponseEntity<Object>> coalesce(String client, String key,
+                                                 Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            String flightKey = client + ":" + key;
+            AtomicReference<Mono<ResponseEntity<Object>>> created = new AtomicReference<>();
+            Mono<ResponseEntity<Object>> flight = inFlight.computeIfAbsent(flightKey, k -> {
+                // Удаляется только свой запрос: после invalidate под тем же ключом может выполняться новый.
+                // Удаление идёт до передачи результата подписчикам: GET, отправленный после получения ответа,
+                // не должен присоединиться к уже завершённому запросу
+                Runnable remove = () -> inFlight.remove(flightKey, created.get());
+                created.set(call.get()
+                        .doOnTerminate(remove)
+                        .doOnCancel(remove)
+                        .cache());
+                return created.get();
+            });
+            boolean leader = created.get() != null;
+            counter(leader ? upstreamCounters : mergedCounters, client, leader ? "upstream" : "merged").increment();
+            return flight;
+        });
+    }
+
+    // Изменение данных клиента: GET, начатые до него, могли прочитать старое состояние, поэтому к ним больше
+    // не присоединяются. Сами запросы доживают до конца, но их запись из карты удалена
+    public void invalidate(String client) {
+        inFlight.keySet().removeIf(flightKey -> flightKey.startsWith(client + ":"));
+    }
+
+    private Counter counter(Map<String, Counter> counters, String client, String result) {
+        return counters.computeIfAbsent(client, key -> Counter.builder("gateway.coalescing.requests")
+                .tag("client", client)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
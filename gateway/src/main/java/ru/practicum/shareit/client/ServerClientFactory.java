@@ -0,0 +1,135 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.config.VirtualThreadConfig;
+
+@Component
+public class ServerClientFactory {
+
+    private final String serverUrl;
+
+    private final RestTemplateBuilder restTemplateBuilder;
+
+    private final ClientHttpRequestFactory requestFactory;
+
+    private final HttpComponentsClientHttpRequestFactory streamingRequestFactory;
+
+    private final ObjectProvider<WebClient.Builder> webClientBuilder;
+
+    private final ObjectProvider<ClientHttpConnector> connector;
+
+    private final GatewayResponseCache responseCache;
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final RetryRegistry retryRegistry;
+
+    private final RequestCoalescer requestCoalescer;
+
+    private final Scheduler blockingScheduler;
+
+    public ServerClientFactory(@Value("${shareit-server.url}") String serverUrl,
+                               RestTemplateBuilder restTemplateBuilder,
+                               ClientHttpRequestFactory requestFactory,
+                               CloseableHttpClient httpClient,
+                               ObjectProvider<WebClient.Builder> webClientBuilder,
+                               ObjectProvider<ClientHttpConnector> connector,
+                               GatewayResponseCache responseCache,
+                               BulkheadRegistry bulkheadRegistry,
+                               CircuitBreakerRegistry circuitBreakerRegistry,
+                               RetryRegistry retryRegistry,
+                               RequestCoalescer requestCoalescer,
+                               ObjectProvider<VirtualThreadConfig> virtualThreads) {
+        this.serverUrl = serverUrl;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.requestFactory = requestFactory;
+        this.streamingRequestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        this.streamingRequestFactory.setBufferRequestBody(false);
+        this.webClientBuilder = webClientBuilder;
+        this.connector = connector;
+        this.responseCache = responseCache;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.retryRegistry = retryRegistry;
+        this.requestCoalescer = requestCoalescer;
+        VirtualThreadConfig virtualThreadConfig = virtualThreads.getIfAvailable();
+        this.blockingScheduler = virtualThreadConfig != null
+                ? Schedulers.fromExecutorService(virtualThreadConfig.executor(), "virtual")
+                : Schedulers.boundedElastic();
+    }
+
+    public GatewayResponseCache responseCache() {
+        return responseCache;
+    }
+
+    public RequestCoalescer requestCoalescer() {
+        return requestCoalescer;
+    }
+
+    // Блокирующие вызовы RestTemplate и ожидание bulkhead в режиме blocking: виртуальные потоки
+    // при shareit.threads.virtual=true, иначе boundedElastic
+    public Scheduler blockingScheduler() {
+        return blockingScheduler;
+    }
+
+    // Имя экземпляра - префикс API без слеша (bookings, items, requests, users), настройки в resilience4j.*
+    public ClientResilience resilience(String apiPrefix) {
+        String name = apiPrefix.substring(1);
+        return new ClientResilience(bulkheadRegistry.bulkhead(name), circuitBreakerRegistry.circuitBreaker(name),
+                retryRegistry.retry(name));
+    }
+
+    public RestTemplate restTemplate(String apiPrefix) {
+        return restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    // Тело запроса не буферизуется, а ответ сервера с любым статусом отдаётся вызывающему как есть
+    public RestTemplate streamingRestTemplate(String apiPrefix) {
+        return restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .requestFactory(() -> streamingRequestFactory)
+                .errorHandler(new DefaultResponseErrorHandler() {
+                    @Override
+                    public boolean hasError(ClientHttpResponse response) {
+                        return false;
+                    }
+                })
+                .build();
+    }
+
+    // null в блокирующем режиме: запросы идут через RestTemplate
+    @Nullable
+    public WebClient webClient(String apiPrefix) {
+        ClientHttpConnector clientConnector = connector.getIfAvailable();
+        if (clientConnector == null) {
+            return null;
+        }
+        return webClientBuilder.getObject()
+                .clientConnector(clientConnector)
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .build();
+    }
+}
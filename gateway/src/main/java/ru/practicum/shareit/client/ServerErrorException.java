@@ -0,0 +1,18 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+// Ответ сервера 5xx как ошибка: его учитывают circuit breaker и retry, клиенту возвращается исходный ответ
+public class ServerErrorException extends RuntimeException {
+
+    private final transient ResponseEntity<Object> response;
+
+    public ServerErrorException(ResponseEntity<Object> response) {
+        super("Сервер ответил " + response.getStatusCodeValue(), null, false, false);
+        this.response = response;
+    }
+
+    public ResponseEntity<Object> getResponse() {
+        return response;
+    }
+}
@@ -4,16 +4,21 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoUpdate;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -26,29 +31,38 @@ public class ItemController {
     ItemClient itemClient;
 
     @PostMapping()
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @Valid @RequestBody ItemDto itemDto) {
         log.info(" Item: {}", itemDto);
         return itemClient.createItem(userId, itemDto);
     }
 
+    // Записи проверяет сервер, gateway только передаёт поток, не разбирая его
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("User id={} importing items", userId);
+        itemClient.importItems(userId, MediaType.parseMediaType(request.getContentType()), request.getInputStream(),
+                response);
+    }
+
     @PatchMapping(value = "/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @RequestBody ItemDtoUpdate itemDtoUpdate,
-                                             @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestBody ItemDtoUpdate itemDtoUpdate,
+                                                   @PathVariable long itemId) {
         log.info("User id={} patching Item id={}: {}", userId, itemId, itemDtoUpdate);
         return itemClient.updateItem(userId, itemId, itemDtoUpdate);
     }
 
     @GetMapping(value = "/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(value = "X-Sharer-User-Id") long userId,
-                                              @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+                                                    @PathVariable long itemId) {
         log.info("User id={} getting Item id={}", userId, itemId);
         return itemClient.getItemById(itemId, userId);
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getItemsByUserId(
+    public Mono<ResponseEntity<Object>> getItemsByUserId(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
@@ -57,7 +71,7 @@ public class ItemController {
     }
 
     @GetMapping(value = "/search")
-    public ResponseEntity<Object> findBySearchTerm(
+    public Mono<ResponseEntity<Object>> findBySearchTerm(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "text") String text,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
@@ -67,9 +81,9 @@ public class ItemController {
     }
 
     @PostMapping(value = "/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(value = "X-Sharer-User-Id") long userId,
-                                                @PathVariable long itemId,
-                                                @Valid @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+                                                      @PathVariable long itemId,
+                                                      @Valid @RequestBody CommentDto commentDto) {
         log.info("User id={} adding comment to Item id={}: {}", userId, itemId, commentDto);
         return itemClient.createComment(userId, itemId, commentDto);
     }
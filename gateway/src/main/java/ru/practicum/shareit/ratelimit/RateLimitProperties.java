@@ -0,0 +1,35 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private long maxBuckets = 100_000;
+
+    private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+
+    // Группы проверяются в порядке объявления, запрос попадает в первую подходящую
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Group {
+
+        // null - любой метод
+        private String method;
+
+        private String path = "/**";
+
+        private long capacity = 100;
+
+        private double refillPerSecond = 50;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Состояние бакета неизменяемое и меняется через CAS, поэтому потоки не блокируют друг друга
+public class TokenBucket {
+
+    private final long capacity;
+
+    private final double tokensPerNano;
+
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    // Возвращает 0, если токен получен, иначе - сколько наносекунд ждать до появления токена
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            // Поток мог прочитать время раньше того, кто успел обновить бакет: время бакета не идёт назад,
+            // иначе следующий вызов начислит тот же промежуток ещё раз
+            long nanos = Math.max(nowNanos, current.nanos);
+            double tokens = Math.min(capacity, current.tokens + (nanos - current.nanos) * tokensPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, nanos))) {
+                return 0;
+            }
+        }
+    }
+
+    private static final class State {
+
+        private final double tokens;
+
+        private final long nanos;
+
+        private State(double tokens, long nanos) {
+            this.tokens = tokens;
+            this.nanos = nanos;
+        }
+    }
+}
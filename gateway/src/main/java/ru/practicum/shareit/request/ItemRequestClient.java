@@ -2,13 +2,11 @@ package ru.practicum.shareit.request;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -19,24 +17,19 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(ServerClientFactory clientFactory) {
+        super(clientFactory, API_PREFIX);
     }
 
-    public ResponseEntity<Object> createItemRequest(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getItemRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequestsByOtherUsers(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemRequestsByOtherUsers(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -44,7 +37,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestById(long userId, long itemRequestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(long userId, long itemRequestId) {
         return get("/" + itemRequestId, userId);
     }
 }
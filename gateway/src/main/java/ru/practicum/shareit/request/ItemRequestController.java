@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -24,20 +25,20 @@ public class ItemRequestController {
     ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                    @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                          @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("User id={} creating ItemRequest: {}", userId, itemRequestDto);
         return itemRequestClient.createItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("User id={} getting ItemRequests", userId);
         return itemRequestClient.getItemRequests(userId);
     }
 
     @GetMapping(path = "/all")
-    public ResponseEntity<Object> getItemRequestsByOtherUsers(
+    public Mono<ResponseEntity<Object>> getItemRequestsByOtherUsers(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
@@ -46,8 +47,8 @@ public class ItemRequestController {
     }
 
     @GetMapping(path = "/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                     @PathVariable long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @PathVariable long requestId) {
         log.info("User id={} getting ItemRequest id={}", userId, requestId);
         return itemRequestClient.getItemRequestById(userId, requestId);
     }
@@ -1,13 +1,11 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoUpdate;
 
@@ -17,32 +15,27 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerClientFactory clientFactory) {
+        super(clientFactory, API_PREFIX);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> updateUser(long id, UserDtoUpdate userDtoUpdate) {
+    public Mono<ResponseEntity<Object>> updateUser(long id, UserDtoUpdate userDtoUpdate) {
         return patch("/" + id, userDtoUpdate);
     }
 
-    public ResponseEntity<Object> getUserById(long id) {
+    public Mono<ResponseEntity<Object>> getUserById(long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> deleteUserById(long id) {
+    public Mono<ResponseEntity<Object>> deleteUserById(long id) {
         return delete("/" + id);
     }
 }
@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoUpdate;
 
@@ -24,32 +25,32 @@ public class UserController {
     UserClient userClient;
 
     @PostMapping()
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody UserDto userDto) {
         log.info("Creating user: {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         log.info("Getting users");
         return userClient.getUsers();
     }
 
     @PatchMapping(value = "/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable long id,
-                                             @RequestBody @Valid UserDtoUpdate userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable long id,
+                                                   @RequestBody @Valid UserDtoUpdate userDto) {
         log.info("Updating users id={}, dto: {}", id, userDto);
         return userClient.updateUser(id, userDto);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable long id) {
         log.info("Getting user id={}", id);
         return userClient.getUserById(id);
     }
 
     @DeleteMapping(value = "/{id}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable long id) {
         log.info("Deleting user id={}", id);
         return userClient.deleteUserById(id);
     }
@@ -0,0 +1,221 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.config.VirtualThreadConfig;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Один и тот же BaseClient против настоящего HTTP-сервера в режимах blocking (RestTemplate) и reactive (WebClient)
+public class BaseClientModesTest {
+
+    private static final String BODY = "{\"id\":1}";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockWebServer server;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private CloseableHttpClient httpClient;
+
+    private ConnectionProvider connectionProvider;
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(ServerClientFactory clientFactory) {
+            super(clientFactory, "/bookings");
+        }
+
+        Mono<ResponseEntity<Object>> getBooking() {
+            return get("/1", 1L);
+        }
+
+        Mono<ResponseEntity<Object>> approveBooking() {
+            return patch("/1", 1L);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.shutdown();
+        httpClient.close();
+        connectionManager.close();
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    private TestClient client(String mode) {
+        HttpClientProperties properties = new HttpClientProperties();
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        connectionManager = httpClientConfig.connectionManager(properties);
+        httpClient = httpClientConfig.httpClient(connectionManager, properties);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("webClientBuilder", WebClient.builder());
+        if ("reactive".equals(mode)) {
+            ReactiveClientConfig reactiveClientConfig = new ReactiveClientConfig();
+            connectionProvider = reactiveClientConfig.connectionProvider(properties);
+            beans.registerSingleton("clientHttpConnector",
+                    reactiveClientConfig.clientHttpConnector(connectionProvider, properties));
+        }
+        String serverUrl = server.url("").toString().replaceAll("/$", "");
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .build());
+        ServerClientFactory clientFactory = new ServerClientFactory(serverUrl, new RestTemplateBuilder(),
+                httpClientConfig.clientHttpRequestFactory(httpClient), httpClient,
+                beans.getBeanProvider(WebClient.Builder.class), beans.getBeanProvider(ClientHttpConnector.class),
+                new GatewayResponseCache(DataSize.ofMegabytes(1), Duration.ofMinutes(10), meterRegistry),
+                BulkheadRegistry.ofDefaults(), CircuitBreakerRegistry.ofDefaults(), retryRegistry,
+                new RequestCoalescer(true, Set.of("bookings"), meterRegistry),
+                beans.getBeanProvider(VirtualThreadConfig.class));
+        return new TestClient(clientFactory);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    public void givenServerResponse_whenGet_thenStatusHeadersAndBodyForwardedWithoutHopByHopHeaders(String mode)
+            throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(201)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setHeader("X-Custom", "value")
+                .setHeader(HttpHeaders.CONNECTION, "keep-alive")
+                .setHeader("Keep-Alive", "timeout=5")
+                .setBody(BODY));
+
+        ResponseEntity<Object> response = client(mode).getBooking().block();
+
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("/bookings/1", request.getPath());
+        assertEquals("1", request.getHeader("X-Sharer-User-Id"));
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("value", response.getHeaders().getFirst("X-Custom"));
+        assertEquals("application/json", response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertArrayEquals(BODY.getBytes(), (byte[]) response.getBody());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    public void givenClientError_whenGet_thenForwardedWithoutRetry(String mode) {
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("{\"error\":\"not found\"}"));
+
+        ResponseEntity<Object> response = client(mode).getBooking().block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals("{\"error\":\"not found\"}".getBytes(), (byte[]) response.getBody());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    public void givenEmptyBody_whenPatch_thenNullBody(String mode) {
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        ResponseEntity<Object> response = client(mode).approveBooking().block();
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    public void givenCachedResponse_whenNotModified_thenCachedBodyReturned(String mode)
+            throws InterruptedException {
+        server.enqueue(new MockResponse().setHeader(HttpHeaders.ETAG, "\"v1\"").setBody(BODY));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, "\"v1\""));
+        TestClient client = client(mode);
+
+        client.getBooking().block();
+        ResponseEntity<Object> second = client.getBooking().block();
+
+        server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("\"v1\"", server.takeRequest(1, TimeUnit.SECONDS).getHeader(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertArrayEquals(BODY.getBytes(), (byte[]) second.getBody());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    public void givenTransientServerError_whenGet_thenRetried(String mode) {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody(BODY));
+
+        ResponseEntity<Object> response = client(mode).getBooking().block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    public void givenServerError_whenPatch_thenNotRetried(String mode) {
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"error\":\"failed\"}"));
+
+        ResponseEntity<Object> response = client(mode).approveBooking().block();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertArrayEquals("{\"error\":\"failed\"}".getBytes(), (byte[]) response.getBody());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    public void givenConcurrentIdenticalGets_whenSent_thenOneUpstreamRequest(String mode) {
+        server.enqueue(new MockResponse().setBody(BODY).setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        TestClient client = client(mode);
+
+        ResponseEntity<Object> first = Mono.zip(client.getBooking(), client.getBooking())
+                .map(responses -> {
+                    assertArrayEquals((byte[]) responses.getT1().getBody(), (byte[]) responses.getT2().getBody());
+                    return responses.getT1();
+                })
+                .block();
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(1, server.getRequestCount());
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientTest {
+
+    private static final String URL = "http://localhost:9090/bookings/1";
+
+    private static final byte[] BODY = "{\"id\":1}".getBytes();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockRestServiceServer server;
+
+    private TestClient client;
+
+    // Блокирующий режим без resilience и объединения запросов: проверяется только кэш ответов
+    private static class TestClient extends BaseClient {
+
+        TestClient(ServerClientFactory clientFactory) {
+            super(clientFactory, "/bookings");
+        }
+
+        ResponseEntity<Object> getBooking() {
+            return get("/1", 1L).block();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        RestTemplate rest = new RestTemplateBuilder().rootUri("http://localhost:9090/bookings").build();
+        server = MockRestServiceServer.bindTo(rest).build();
+        ServerClientFactory clientFactory = mock(ServerClientFactory.class);
+        when(clientFactory.restTemplate("/bookings")).thenReturn(rest);
+        when(clientFactory.blockingScheduler()).thenReturn(Schedulers.boundedElastic());
+        when(clientFactory.responseCache()).thenReturn(new GatewayResponseCache(DataSize.ofMegabytes(1),
+                Duration.ofMinutes(10), meterRegistry));
+        client = new TestClient(clientFactory);
+    }
+
+    private static HttpHeaders etag(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return headers;
+    }
+
+    @Test
+    public void givenCachedResponse_whenServerAnswersNotModified_thenCachedBodyReturned() {
+        server.expect(requestTo(URL)).andExpect(method(HttpMethod.GET))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo(URL)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag("\"v1\"")));
+
+        ResponseEntity<Object> first = client.getBooking();
+        ResponseEntity<Object> second = client.getBooking();
+
+        server.verify();
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertArrayEquals((byte[]) first.getBody(), (byte[]) second.getBody());
+        assertEquals(1, meterRegistry.get("gateway.response.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    public void givenCachedResponse_whenServerReturnsNewVersion_thenNewBodyReturnedAndCached() {
+        byte[] updated = "{\"id\":1,\"status\":\"APPROVED\"}".getBytes();
+        server.expect(requestTo(URL))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo(URL)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withSuccess(updated, MediaType.APPLICATION_JSON).headers(etag("\"v2\"")));
+        server.expect(requestTo(URL)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        client.getBooking();
+        ResponseEntity<Object> second = client.getBooking();
+        ResponseEntity<Object> third = client.getBooking();
+
+        server.verify();
+        assertArrayEquals(updated, (byte[]) second.getBody());
+        assertArrayEquals(updated, (byte[]) third.getBody());
+    }
+
+    @Test
+    public void givenResponseWithoutEtag_whenRequestedAgain_thenNoConditionalRequest() {
+        server.expect(requestTo(URL)).andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(URL)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        client.getBooking();
+        client.getBooking();
+
+        server.verify();
+    }
+}
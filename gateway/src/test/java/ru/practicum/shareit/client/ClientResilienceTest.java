@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.exception.ErrorHandler;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ClientResilienceTest {
+
+    private final Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+
+    // Как resilience4j.retry.configs.default, но без ожидания между попытками
+    private final Retry retry = Retry.of("test", RetryConfig.custom()
+            .maxAttempts(3)
+            .waitDuration(Duration.ofMillis(1))
+            .ignoreExceptions(CallNotPermittedException.class, BulkheadFullException.class)
+            .build());
+
+    private final ClientResilience resilience = new ClientResilience(bulkhead, circuitBreaker, retry);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Mono<ResponseEntity<Object>> call(HttpStatus... statuses) {
+        Deque<HttpStatus> responses = new ArrayDeque<>(List.of(statuses));
+        return Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            HttpStatus status = responses.size() > 1 ? responses.poll() : responses.peek();
+            return ResponseEntity.status(status).body((Object) status.name());
+        });
+    }
+
+    @Test
+    public void givenServerError_whenGet_thenRetriedAndOriginalResponseReturned() {
+        ResponseEntity<Object> response = resilience.decorate(call(HttpStatus.BAD_GATEWAY), true).block();
+
+        assertEquals(3, calls.get());
+        assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+        assertEquals("BAD_GATEWAY", response.getBody());
+    }
+
+    @Test
+    public void givenTransientServerError_whenGet_thenSuccessfulRetryReturned() {
+        ResponseEntity<Object> response = resilience.decorate(
+                call(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK), true).block();
+
+        assertEquals(2, calls.get());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    public void givenBlockingCall_whenRetried_thenAttemptsNotRunOnParallelThreads() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        Mono<ResponseEntity<Object>> blockingCall = call(HttpStatus.BAD_GATEWAY)
+                .doOnSubscribe(subscription -> threads.add(Thread.currentThread().getName()));
+
+        resilience.decorate(blockingCall, true, Schedulers.boundedElastic()).block();
+
+        assertEquals(3, threads.size());
+        threads.forEach(thread -> assertFalse(thread.startsWith("parallel-"), thread));
+    }
+
+    @Test
+    public void givenServerError_whenNotIdempotent_thenNotRetried() {
+        ResponseEntity<Object> response = resilience.decorate(call(HttpStatus.INTERNAL_SERVER_ERROR), false)
+                .block();
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void givenClientError_whenGet_thenReturnedWithoutRetry() {
+        ResponseEntity<Object> response = resilience.decorate(call(HttpStatus.NOT_FOUND), true).block();
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    public void givenBulkheadFull_whenGet_thenRejectedWithoutCallOrRetry() {
+        bulkhead.acquirePermission();
+
+        assertThrows(BulkheadFullException.class, () -> resilience.decorate(call(HttpStatus.OK), true).block());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void givenOpenCircuitBreaker_whenGet_thenRejectedWithoutCallOrRetry() {
+        circuitBreaker.transitionToOpenState();
+
+        assertThrows(CallNotPermittedException.class, () -> resilience.decorate(call(HttpStatus.OK), true).block());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void givenRejectedCall_whenHandled_thenServiceUnavailable() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new RejectingController(resilience))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+
+        bulkhead.acquirePermission();
+        mvc.perform(get("/call")).andExpect(status().isServiceUnavailable());
+        bulkhead.releasePermission();
+
+        circuitBreaker.transitionToOpenState();
+        mvc.perform(get("/call")).andExpect(status().isServiceUnavailable());
+    }
+
+    @RestController
+    private static class RejectingController {
+
+        private final ClientResilience resilience;
+
+        RejectingController(ClientResilience resilience) {
+            this.resilience = resilience;
+        }
+
+        @GetMapping("/call")
+        public ResponseEntity<Object> call() {
+            return resilience.decorate(Mono.just(ResponseEntity.ok().build()), true).block();
+        }
+    }
+}
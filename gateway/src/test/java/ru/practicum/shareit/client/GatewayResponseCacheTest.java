@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GatewayResponseCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static ResponseEntity<Object> response(String etag, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        headers.set("X-Total-Count", "1");
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    private GatewayResponseCache cache(DataSize maxSize) {
+        return new GatewayResponseCache(maxSize, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    @Test
+    public void givenResponseWithEtag_whenPut_thenStoredAsCachedResponse() {
+        GatewayResponseCache cache = cache(DataSize.ofMegabytes(1));
+        byte[] body = "[{\"id\":1}]".getBytes();
+
+        cache.put("/bookings#1", response("\"v1\"", body));
+
+        CachedResponse cached = cache.get("/bookings#1");
+        assertNotNull(cached);
+        assertEquals("\"v1\"", cached.getEtag());
+        assertEquals(HttpStatus.OK.value(), cached.getStatus());
+        assertEquals("1", cached.getHeaders().getFirst("X-Total-Count"));
+        assertArrayEquals(body, cached.getBody());
+        assertEquals(1, meterRegistry.get("gateway.response.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    public void givenResponseWithoutEtag_whenPut_thenPreviousEntryDropped() {
+        GatewayResponseCache cache = cache(DataSize.ofMegabytes(1));
+        cache.put("/bookings#1", response("\"v1\"", new byte[]{1}));
+
+        cache.put("/bookings#1", response(null, new byte[]{2}));
+
+        assertNull(cache.get("/bookings#1"));
+    }
+
+    @Test
+    public void givenCachedResponse_whenRevalidated_thenCachedBodyReturnedAndSavingsCounted() {
+        GatewayResponseCache cache = cache(DataSize.ofMegabytes(1));
+        byte[] body = new byte[100];
+        cache.put("/items#1", response("\"v1\"", body));
+
+        ResponseEntity<Object> revalidated = cache.revalidated(cache.get("/items#1"));
+
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals("\"v1\"", revalidated.getHeaders().getETag());
+        assertArrayEquals(body, (byte[]) revalidated.getBody());
+        assertEquals(1, meterRegistry.get("gateway.response.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(100, meterRegistry.get("gateway.response.cache.bytes.saved").counter().count());
+    }
+
+    @Test
+    public void givenCacheFull_whenMoreResponsesPut_thenEvictedBySize() throws InterruptedException {
+        GatewayResponseCache cache = cache(DataSize.ofKilobytes(4));
+        for (int i = 0; i < 10; i++) {
+            cache.put("/items#" + i, response("\"v" + i + "\"", new byte[1024]));
+        }
+
+        // Caffeine вытесняет записи асинхронно, размер проверяется до истечения таймаута
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        double size;
+        do {
+            cache.get("/items#0");
+            size = meterRegistry.get("gateway.response.cache.size").gauge().value();
+            if (size <= 3) {
+                break;
+            }
+            Thread.sleep(10);
+        } while (System.nanoTime() < deadline);
+
+        // Какие записи останутся, решает политика Caffeine, гарантирован только предел по весу
+        assertTrue(size <= 3, "size=" + size);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HttpClientPropertiesTest {
+
+    private HttpClientProperties bind(String key, String value) {
+        Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(key, value)));
+        return binder.bind("shareit-server.http-client", Bindable.of(HttpClientProperties.class))
+                .orElseGet(HttpClientProperties::new);
+    }
+
+    @Test
+    public void givenRouteInBrackets_whenBound_thenUrlKeptAsKey() {
+        HttpClientProperties properties = bind("shareit-server.http-client.routes[http://server:9090]", "50");
+
+        assertEquals(Map.of("http://server:9090", 50), properties.getRoutes());
+    }
+}
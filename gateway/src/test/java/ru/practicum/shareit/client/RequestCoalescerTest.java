@@ -0,0 +1,102 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RequestCoalescerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RequestCoalescer coalescer = new RequestCoalescer(true, Set.of("bookings"), meterRegistry);
+
+    private final List<Sinks.One<ResponseEntity<Object>>> upstream = new ArrayList<>();
+
+    private final Supplier<Mono<ResponseEntity<Object>>> call = () -> {
+        Sinks.One<ResponseEntity<Object>> sink = Sinks.one();
+        upstream.add(sink);
+        return sink.asMono();
+    };
+
+    private AtomicReference<ResponseEntity<Object>> subscribe(Mono<ResponseEntity<Object>> response) {
+        AtomicReference<ResponseEntity<Object>> result = new AtomicReference<>();
+        response.subscribe(result::set);
+        return result;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.coalescing.requests")
+                .tag("client", "bookings")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    @Test
+    public void givenGetInFlight_whenSameGetArrives_thenMergedIntoOneUpstreamCall() {
+        AtomicReference<ResponseEntity<Object>> first = subscribe(coalescer.coalesce("bookings", "/bookings#1", call));
+        AtomicReference<ResponseEntity<Object>> second = subscribe(coalescer.coalesce("bookings", "/bookings#1", call));
+
+        ResponseEntity<Object> response = ResponseEntity.ok("body");
+        upstream.get(0).tryEmitValue(response);
+
+        assertEquals(1, upstream.size());
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+        assertEquals(1, count("upstream"));
+        assertEquals(1, count("merged"));
+    }
+
+    @Test
+    public void givenGetCompleted_whenSameGetSentOnResponse_thenGoesUpstream() {
+        AtomicReference<ResponseEntity<Object>> second = new AtomicReference<>();
+        coalescer.coalesce("bookings", "/bookings#1", call)
+                .subscribe(response -> coalescer.coalesce("bookings", "/bookings#1", call).subscribe(second::set));
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("old"));
+        upstream.get(upstream.size() - 1).tryEmitValue(ResponseEntity.ok("new"));
+
+        assertEquals(2, upstream.size());
+        assertEquals("new", second.get().getBody());
+    }
+
+    @Test
+    public void givenGetInFlight_whenClientInvalidated_thenNextGetGoesUpstream() {
+        AtomicReference<ResponseEntity<Object>> beforeWrite =
+                subscribe(coalescer.coalesce("bookings", "/bookings#1", call));
+
+        coalescer.invalidate("bookings");
+        AtomicReference<ResponseEntity<Object>> afterWrite =
+                subscribe(coalescer.coalesce("bookings", "/bookings#1", call));
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("old"));
+        AtomicReference<ResponseEntity<Object>> merged =
+                subscribe(coalescer.coalesce("bookings", "/bookings#1", call));
+        upstream.get(1).tryEmitValue(ResponseEntity.ok("new"));
+
+        assertEquals(2, upstream.size());
+        assertEquals("old", beforeWrite.get().getBody());
+        assertEquals("new", afterWrite.get().getBody());
+        assertEquals("new", merged.get().getBody());
+    }
+
+    @Test
+    public void givenOtherClientInvalidated_whenSameGetArrives_thenStillMerged() {
+        subscribe(coalescer.coalesce("bookings", "/bookings#1", call));
+
+        coalescer.invalidate("items");
+        subscribe(coalescer.coalesce("bookings", "/bookings#1", call));
+
+        assertEquals(1, upstream.size());
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), new ObjectMapper(), meterRegistry);
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties.Group bookingCreate = new RateLimitProperties.Group();
+        bookingCreate.setMethod("POST");
+        bookingCreate.setPath("/bookings/**");
+        bookingCreate.setCapacity(1);
+        bookingCreate.setRefillPerSecond(0.5);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(Map.of("booking-create", bookingCreate));
+        return properties;
+    }
+
+    private MockHttpServletResponse send(String method, String path, String userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    public void givenBucketExhausted_whenRequest_thenTooManyRequestsWithRetryAfter() throws Exception {
+        assertEquals(200, send("POST", "/bookings", "1").getStatus());
+
+        MockHttpServletResponse rejected = send("POST", "/bookings", "1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.counter("gateway.rate.limit.rejected", "group", "booking-create").count());
+    }
+
+    @Test
+    public void givenBucketExhausted_whenOtherUserOrGroup_thenAdmitted() throws Exception {
+        send("POST", "/bookings", "1");
+
+        assertEquals(200, send("POST", "/bookings", "2").getStatus());
+        assertEquals(200, send("GET", "/bookings", "1").getStatus());
+    }
+
+    @Test
+    public void givenNoUserHeader_whenRequest_thenNotLimited() throws Exception {
+        send("POST", "/bookings", null);
+        MockHttpServletResponse response = send("POST", "/bookings", null);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+}
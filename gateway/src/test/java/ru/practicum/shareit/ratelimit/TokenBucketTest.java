@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void givenFullBucket_whenCapacityExceeded_thenWaitUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(2, 4, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND / 4, bucket.tryAcquire(0));
+    }
+
+    @Test
+    public void givenEmptyBucket_whenTimePasses_thenRefilledUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND) > 0);
+
+        long later = 100 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    public void givenStaleTimestamp_whenAcquired_thenBucketClockDoesNotGoBack() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(SECOND));
+
+        // Поток прочитал время до предыдущего вызова: ожидание считается от времени бакета
+        assertEquals(SECOND, bucket.tryAcquire(SECOND / 2));
+        assertTrue(bucket.tryAcquire(SECOND) > 0);
+        assertEquals(0, bucket.tryAcquire(2 * SECOND));
+    }
+}
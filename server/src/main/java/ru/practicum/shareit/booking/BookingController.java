@@ -1,13 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionBatchDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -17,8 +27,18 @@ import java.util.List;
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     BookingService bookingService;
 
+    ObjectMapper objectMapper;
+
+    private static void setNextCursor(HttpServletResponse response, List<BookingDto> bookings, int size) {
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.setHeader(NEXT_CURSOR_HEADER, BookingCursor.after(bookings.get(bookings.size() - 1)).encode());
+        }
+    }
+
     @PostMapping
     public BookingDto addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @Valid @RequestBody BookingDto bookingDto) {
@@ -27,6 +47,14 @@ public class BookingController {
         return booking;
     }
 
+    @PostMapping(value = "/batch")
+    public List<BookingDto> addBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                        @Valid @RequestBody BookingBatchDto bookingBatchDto) {
+        List<BookingDto> bookings = bookingService.addBookings(userId, bookingBatchDto.getBookings());
+        log.info("Добавили {} бронирований пользователя id={}", bookings.size(), userId);
+        return bookings;
+    }
+
     @PatchMapping(value = "/{bookingId}")
     public BookingDto updateBooking(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                     @RequestParam(value = "approved") boolean approved,
@@ -36,6 +64,14 @@ public class BookingController {
         return updatedBooking;
     }
 
+    @PatchMapping(value = "/bulk")
+    public List<BookingDecisionResult> decideBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                      @Valid @RequestBody BookingDecisionBatchDto decisionBatchDto) {
+        List<BookingDecisionResult> results = bookingService.decideBookings(ownerId, decisionBatchDto.getDecisions());
+        log.info("Владелец id={} рассмотрел {} бронирований", ownerId, results.size());
+        return results;
+    }
+
     @GetMapping(value = "/{bookingId}")
     public BookingDto getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @PathVariable long bookingId) {
@@ -49,8 +85,16 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(required = false, defaultValue = "ALL") String state,
             @RequestParam(required = false, defaultValue = "0") int from,
-            @RequestParam(required = false, defaultValue = "20") int size) {
-        List<BookingDto> bookings = bookingService.getBookingsByBookerId(userId, state, from, size);
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
+        List<BookingDto> bookings;
+        if (cursor == null) {
+            bookings = bookingService.getBookingsByBookerId(userId, state, from, size);
+        } else {
+            bookings = bookingService.getBookingsByBookerIdAfter(userId, state, cursor, size);
+            setNextCursor(response, bookings, size);
+        }
         log.info("Получили список бронирований пользователя id={}, длина={}", userId, bookings.size());
         return bookings;
     }
@@ -60,9 +104,46 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(required = false, defaultValue = "ALL") String state,
             @RequestParam(required = false, defaultValue = "0") int from,
-            @RequestParam(required = false, defaultValue = "20") int size) {
-        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(userId, state, from, size);
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
+        List<BookingDto> bookings;
+        if (cursor == null) {
+            bookings = bookingService.getBookingsByOwnerId(userId, state, from, size);
+        } else {
+            bookings = bookingService.getBookingsByOwnerIdAfter(userId, state, cursor, size);
+            setNextCursor(response, bookings, size);
+        }
         log.info("Получили список бронирований владельца вещей id={}, длина={}", userId, bookings.size());
         return bookings;
     }
+
+    // Тип ответа выставляется при первой записи: до неё сервис проверяет пользователя и роль, и ErrorHandler
+    // ещё может вернуть ErrorResponse в JSON
+    @GetMapping(value = "/export")
+    public void exportBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                               @RequestParam(required = false, defaultValue = "booker") String role,
+                               HttpServletResponse response) throws IOException {
+        SequenceWriter[] bookings = new SequenceWriter[1];
+        bookingService.exportBookings(userId, role, booking -> {
+            try {
+                if (bookings[0] == null) {
+                    bookings[0] = ndjsonWriter(response);
+                }
+                bookings[0].write(booking);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (bookings[0] == null) {
+            bookings[0] = ndjsonWriter(response);
+        }
+        bookings[0].flush();
+        log.info("Выгрузили историю бронирований пользователя id={}, роль={}", userId, role);
+    }
+
+    private SequenceWriter ndjsonWriter(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return objectMapper.writer().withRootValueSeparator("\n").writeValues(response.getOutputStream());
+    }
 }
@@ -1,51 +1,226 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    String AFTER_CURSOR = " and (b.startTime < :cursorStart or (b.startTime = :cursorStart and b.id < :cursorId))" +
+            " order by b.startTime desc, b.id desc";
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByUserIdOrderByStartTimeDesc(Long bookerId, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByUserIdAndStatusEqualsOrderByStartTimeDesc(
             Long bookerId, Status status, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByUserIdAndEndTimeBeforeOrderByStartTimeDesc(
             Long bookerId, LocalDateTime endTime, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByUserIdAndStartTimeBeforeAndEndTimeAfterOrderByStartTimeDesc(
             Long bookerId, LocalDateTime starTime, LocalDateTime endTime, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByUserIdAndStartTimeAfterOrderByStartTimeDesc(
             Long bookerId, LocalDateTime starTime, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByItemUserIdOrderByStartTimeDesc(Long ownerId, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByItemUserIdAndStatusEqualsOrderByStartTimeDesc(Long ownerId, Status status, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByItemUserIdAndEndTimeBeforeOrderByStartTimeDesc(Long ownerId, LocalDateTime endTime, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByItemUserIdAndStartTimeBeforeAndEndTimeAfterOrderByStartTimeDesc(
             Long ownerId, LocalDateTime starTime, LocalDateTime endTime, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByItemUserIdAndStartTimeAfterOrderByStartTimeDesc(
             Long ownerId, LocalDateTime startTime, PageRequest pageRequest);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByItemIdOrderByStartTimeDesc(Long itemId);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByItemIdAndUserIdOrderByStartTimeDesc(Long itemId, Long bookerId);
 
-    Optional<Booking> findFirstByItemIdAndAndStartTimeBeforeAndStatusEqualsOrderByStartTimeDesc(
-            Long itemId, LocalDateTime startTime, Status status);
-
-    Optional<Booking> findFirstByItemIdAndAndStartTimeAfterAndStatusEqualsOrderByStartTimeAsc(
-            Long itemId, LocalDateTime startTime, Status status);
+    @Query("select b from Booking b join fetch b.user " +
+            "where b.item.id in :itemIds and b.status = :status and b.startTime < :now " +
+            "and b.startTime = (select max(lb.startTime) from Booking lb " +
+            "where lb.item.id = b.item.id and lb.status = :status and lb.startTime < :now)")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("status") Status status);
+
+    @Query("select b from Booking b join fetch b.user " +
+            "where b.item.id in :itemIds and b.status = :status and b.startTime > :now " +
+            "and b.startTime = (select min(nb.startTime) from Booking nb " +
+            "where nb.item.id = b.item.id and nb.status = :status and nb.startTime > :now)")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("status") Status status);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.user.id = :bookerId" + AFTER_CURSOR)
+    List<Booking> findByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            PageRequest pageRequest);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.user.id = :bookerId and b.status = :status" + AFTER_CURSOR)
+    List<Booking> findByBookerIdAndStatusAfterCursor(@Param("bookerId") Long bookerId,
+                                                     @Param("status") Status status,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId,
+                                                     PageRequest pageRequest);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.user.id = :bookerId and b.endTime < :now" + AFTER_CURSOR)
+    List<Booking> findPastByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                                @Param("now") LocalDateTime now,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") Long cursorId,
+                                                PageRequest pageRequest);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.user.id = :bookerId and b.startTime < :now and b.endTime > :now" +
+            AFTER_CURSOR)
+    List<Booking> findCurrentByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                                   @Param("now") LocalDateTime now,
+                                                   @Param("cursorStart") LocalDateTime cursorStart,
+                                                   @Param("cursorId") Long cursorId,
+                                                   PageRequest pageRequest);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.user.id = :bookerId and b.startTime > :now" + AFTER_CURSOR)
+    List<Booking> findFutureByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                                  @Param("now") LocalDateTime now,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Long cursorId,
+                                                  PageRequest pageRequest);
+
+    // Курсор владельца ищет по owner_id, а не через items: соединение заставило бы читать и сортировать
+    // бронирования всех вещей владельца на каждой странице
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.ownerId = :ownerId" + AFTER_CURSOR)
+    List<Booking> findByOwnerIdAfterCursor(@Param("ownerId") Long ownerId,
+                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                           @Param("cursorId") Long cursorId,
+                                           PageRequest pageRequest);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.ownerId = :ownerId and b.status = :status" + AFTER_CURSOR)
+    List<Booking> findByOwnerIdAndStatusAfterCursor(@Param("ownerId") Long ownerId,
+                                                    @Param("status") Status status,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId,
+                                                    PageRequest pageRequest);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.ownerId = :ownerId and b.endTime < :now" + AFTER_CURSOR)
+    List<Booking> findPastByOwnerIdAfterCursor(@Param("ownerId") Long ownerId,
+                                               @Param("now") LocalDateTime now,
+                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                               @Param("cursorId") Long cursorId,
+                                               PageRequest pageRequest);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.ownerId = :ownerId and b.startTime < :now and b.endTime > :now" +
+            AFTER_CURSOR)
+    List<Booking> findCurrentByOwnerIdAfterCursor(@Param("ownerId") Long ownerId,
+                                                  @Param("now") LocalDateTime now,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Long cursorId,
+                                                  PageRequest pageRequest);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from Booking b where b.ownerId = :ownerId and b.startTime > :now" + AFTER_CURSOR)
+    List<Booking> findFutureByOwnerIdAfterCursor(@Param("ownerId") Long ownerId,
+                                                 @Param("now") LocalDateTime now,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 PageRequest pageRequest);
+
+    // Подтверждённые бронирования одной вещи не пересекаются, поэтому достаточно проверить одно - последнее
+    // начавшееся до конца нового интервала. Это один поиск по индексу (item_id, status, start_time)
+    Optional<Booking> findFirstByItemIdAndStatusAndStartTimeBeforeOrderByStartTimeDesc(
+            Long itemId, Status status, LocalDateTime endTime);
+
+    // Подтверждённые бронирования нескольких вещей, пересекающие интервал: проверка пачки одним запросом
+    @Query("select b from Booking b where b.item.id in :itemIds " +
+            "and b.status = ru.practicum.shareit.booking.model.Status.APPROVED " +
+            "and b.startTime < :end and b.endTime > :start")
+    List<Booking> findApprovedOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end);
+
+    // Условное обновление вместо read-modify-write: из одновременных запросов строку изменит только первый
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :bookingId and b.status = ru.practicum.shareit.booking.model.Status.WAITING")
+    int updateStatusIfWaiting(@Param("bookingId") Long bookingId, @Param("status") Status status);
+
+    @EntityGraph(attributePaths = "item")
+    List<Booking> findByIdInAndItemUserId(Collection<Long> bookingIds, Long ownerId);
+
+    // Ожидающие решения бронирования блокируются до конца транзакции: параллельный запрос не изменит их
+    // между проверкой и условным UPDATE, поэтому каждое из них будет обновлено именно этой транзакцией.
+    // Как и у вещей, блокировки берутся в порядке id, иначе пакеты с пересекающимися id могут ждать друг друга
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id from Booking b " +
+            "where b.id in :bookingIds and b.status = ru.practicum.shareit.booking.model.Status.WAITING " +
+            "order by b.id")
+    List<Long> findWaitingIdsForUpdate(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :bookingIds and b.status = ru.practicum.shareit.booking.model.Status.WAITING " +
+            "and b.item.id in (select i.id from Item i where i.user.id = :ownerId)")
+    int updateStatusIfWaitingForOwner(@Param("bookingIds") Collection<Long> bookingIds,
+                                      @Param("ownerId") Long ownerId,
+                                      @Param("status") Status status);
+
+    // Выгрузка читается курсором порциями по EXPORT_FETCH_SIZE строк, поток нужно закрыть внутри транзакции
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select b from Booking b where b.user.id = :bookerId order by b.startTime desc, b.id desc")
+    Stream<Booking> streamByBookerId(@Param("bookerId") Long bookerId);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select b from Booking b where b.item.user.id = :ownerId order by b.startTime desc, b.id desc")
+    Stream<Booking> streamByOwnerId(@Param("ownerId") Long ownerId);
 }
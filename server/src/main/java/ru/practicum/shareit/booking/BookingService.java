@@ -6,22 +6,35 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingMapper;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.model.BookingMapper.mapBookingDtoToBookingEntity;
 import static ru.practicum.shareit.booking.model.BookingMapper.mapBookingEntityToBookingDto;
@@ -38,6 +51,8 @@ public class BookingService {
 
     ItemRepository itemRepository;
 
+    EntityManager entityManager;
+
     @Transactional
     public BookingDto addBooking(Long userId, BookingDto bookingDto) {
         User user = userRepository.findById(userId)
@@ -45,6 +60,59 @@ public class BookingService {
         Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь id=%s не найдена!",
                         bookingDto.getItemId())));
+        validateBooking(userId, item, bookingDto);
+        if (overlapsApproved(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new BadRequestException("Вещь уже забронирована на это время!");
+        }
+        bookingDto.setStatus(Status.WAITING);
+        Booking booking = mapBookingDtoToBookingEntity(bookingDto);
+        booking.setItem(item);
+        booking.setUser(user);
+        return mapBookingEntityToBookingDto(bookingRepository.save(booking));
+    }
+
+    // Все бронирования создаются в одной транзакции: если хотя бы одно не проходит проверку, не создаётся ни одно
+    @Transactional
+    public List<BookingDto> addBookings(Long userId, List<BookingDto> bookingDtos) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь id=%s не найден!", userId)));
+        Map<Long, Item> items = itemRepository.findByIdIn(bookingDtos.stream()
+                        .map(BookingDto::getItemId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        // Подтверждённые бронирования всех вещей пачки читаются одним запросом по общему интервалу
+        // и сверяются в памяти, вместо запроса на каждый элемент
+        List<Booking> approved = items.isEmpty()
+                ? Collections.emptyList()
+                : bookingRepository.findApprovedOverlapping(items.keySet(),
+                bookingDtos.stream().map(BookingDto::getStart).min(LocalDateTime::compareTo).orElseThrow(),
+                bookingDtos.stream().map(BookingDto::getEnd).max(LocalDateTime::compareTo).orElseThrow());
+        List<Booking> bookings = new ArrayList<>(bookingDtos.size());
+        for (BookingDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                throw new NotFoundException(String.format("Вещь id=%s не найдена!", bookingDto.getItemId()));
+            }
+            validateBooking(userId, item, bookingDto);
+            bookingDto.setStatus(Status.WAITING);
+            Booking booking = mapBookingDtoToBookingEntity(bookingDto);
+            booking.setItem(item);
+            booking.setUser(user);
+            if (approved.stream().anyMatch(other -> overlaps(other, booking))) {
+                throw new BadRequestException("Вещь уже забронирована на это время!");
+            }
+            if (bookings.stream().anyMatch(other -> overlaps(other, booking))) {
+                throw new BadRequestException(String.format("Бронирования вещи id=%s пересекаются!",
+                        item.getId()));
+            }
+            bookings.add(booking);
+        }
+        return bookingRepository.saveAll(bookings).stream()
+                .map(BookingMapper::mapBookingEntityToBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private void validateBooking(Long userId, Item item, BookingDto bookingDto) {
         if (userId.equals(item.getUser().getId())) {
             throw new NotFoundException("Хозяин вещи не может забронировать свою вещь!");
         }
@@ -57,11 +125,42 @@ public class BookingService {
         if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
             throw new BadRequestException("Время конца бронирования раньше начала!");
         }
-        bookingDto.setStatus(Status.WAITING);
-        Booking booking = mapBookingDtoToBookingEntity(bookingDto);
-        booking.setItem(item);
-        booking.setUser(user);
-        return mapBookingEntityToBookingDto(bookingRepository.save(booking));
+    }
+
+    private boolean overlapsApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.findFirstByItemIdAndStatusAndStartTimeBeforeOrderByStartTimeDesc(itemId,
+                        Status.APPROVED, end)
+                .map(latest -> latest.getEndTime().isAfter(start))
+                .orElse(false);
+    }
+
+    // Полная история без пагинации: строки идут из курсора сразу в sink, контекст персистентности
+    // очищается после каждой порции, поэтому память не растёт с числом бронирований
+    @Transactional(readOnly = true)
+    public void exportBookings(long userId, String role, Consumer<BookingDto> sink) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден!", userId));
+        }
+        Stream<Booking> bookings;
+        switch (role) {
+            case "booker":
+                bookings = bookingRepository.streamByBookerId(userId);
+                break;
+            case "owner":
+                bookings = bookingRepository.streamByOwnerId(userId);
+                break;
+            default:
+                throw new BadRequestException(String.format("Unknown role: %s", role));
+        }
+        int exported = 0;
+        try (bookings) {
+            for (Booking booking : (Iterable<Booking>) bookings::iterator) {
+                sink.accept(mapBookingEntityToBookingDto(booking));
+                if (++exported % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
     }
 
     private static State validateBookingState(String str) {
@@ -74,6 +173,37 @@ public class BookingService {
 
     @Transactional
     public BookingDto updateBooking(Long ownerId, boolean approved, Long bookingId) {
+        if (!approved) {
+            return rejectBooking(ownerId, bookingId);
+        }
+        Booking booking = findWaitingBookingOfOwner(ownerId, bookingId);
+        // Блокировка вещи упорядочивает одновременные подтверждения разных бронирований одной вещи,
+        // условный UPDATE ниже - одновременные решения по одному бронированию
+        itemRepository.findByIdForUpdate(booking.getItem().getId());
+        if (overlapsApproved(booking.getItem().getId(), booking.getStartTime(), booking.getEndTime())) {
+            throw new BadRequestException("Вещь уже забронирована на это время!");
+        }
+        if (bookingRepository.updateStatusIfWaiting(bookingId, Status.APPROVED) == 0) {
+            throw new ConflictException("Бронирование уже рассмотрено параллельным запросом!");
+        }
+        BookingDto bookingDto = mapBookingEntityToBookingDto(booking);
+        bookingDto.setStatus(Status.APPROVED);
+        return bookingDto;
+    }
+
+    // Права владельца и статус проверяет сам условный UPDATE, бронирование читается уже после него для ответа.
+    // Если ничего не обновлено, причина ошибки определяется теми же проверками, что и при подтверждении
+    private BookingDto rejectBooking(Long ownerId, Long bookingId) {
+        if (bookingRepository.updateStatusIfWaitingForOwner(List.of(bookingId), ownerId, Status.REJECTED) == 0) {
+            findWaitingBookingOfOwner(ownerId, bookingId);
+            throw new ConflictException("Бронирование уже рассмотрено параллельным запросом!");
+        }
+        return bookingRepository.findById(bookingId)
+                .map(BookingMapper::mapBookingEntityToBookingDto)
+                .orElseThrow(() -> new NotFoundException(String.format("Бронирование id=%s не найдено!", bookingId)));
+    }
+
+    private Booking findWaitingBookingOfOwner(Long ownerId, Long bookingId) {
         if (!userRepository.existsById(ownerId)) {
             throw new NotFoundException(String.format("Пользователь id=%s не найден!", ownerId));
         }
@@ -85,9 +215,98 @@ public class BookingService {
         if (!booking.getStatus().equals(Status.WAITING)) {
             throw new BadRequestException("Бронирование уже рассмотрено хозяином вещи!");
         }
-        booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-        Booking updateBooking = bookingRepository.save(booking);
-        return mapBookingEntityToBookingDto(updateBooking);
+        return booking;
+    }
+
+    // Решения применяются двумя условными UPDATE (подтверждения и отказы) вместо запроса на каждое бронирование.
+    // Результат возвращается по каждому id: статус или причина, по которой решение не применено
+    @Transactional
+    public List<BookingDecisionResult> decideBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден!", ownerId));
+        }
+        Map<Long, BookingDecisionResult> results = new LinkedHashMap<>();
+        Map<Long, Boolean> requested = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (requested.putIfAbsent(decision.getBookingId(), decision.getApproved()) != null) {
+                results.put(decision.getBookingId(), BookingDecisionResult.failed(decision.getBookingId(),
+                        "Решение по бронированию указано несколько раз!"));
+            }
+        }
+        Map<Long, Booking> bookings = bookingRepository.findByIdInAndItemUserId(requested.keySet(), ownerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> candidates = bookings.values().stream()
+                .filter(booking -> requested.get(booking.getId()) && !results.containsKey(booking.getId()))
+                .collect(Collectors.toList());
+        // Порядок блокировок как в updateBooking: сначала вещи подтверждаемых бронирований, затем сами бронирования
+        List<Booking> approved = Collections.emptyList();
+        if (!candidates.isEmpty()) {
+            Set<Long> itemIds = candidates.stream()
+                    .map(booking -> booking.getItem().getId())
+                    .collect(Collectors.toSet());
+            itemRepository.findByIdInForUpdate(itemIds);
+            approved = bookingRepository.findApprovedOverlapping(itemIds,
+                    candidates.stream().map(Booking::getStartTime).min(LocalDateTime::compareTo).orElseThrow(),
+                    candidates.stream().map(Booking::getEndTime).max(LocalDateTime::compareTo).orElseThrow());
+        }
+        Set<Long> waiting = bookings.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(bookingRepository.findWaitingIdsForUpdate(bookings.keySet()));
+        Set<Long> approvals = new HashSet<>();
+        Set<Long> rejections = new HashSet<>();
+        List<Booking> approvedInBatch = new ArrayList<>();
+        for (Map.Entry<Long, Boolean> decision : requested.entrySet()) {
+            Long bookingId = decision.getKey();
+            Booking booking = bookings.get(bookingId);
+            if (results.containsKey(bookingId)) {
+                continue;
+            }
+            String error = null;
+            if (booking == null) {
+                error = String.format("Бронирование id=%s не найдено!", bookingId);
+            } else if (!waiting.contains(bookingId)) {
+                error = "Бронирование уже рассмотрено хозяином вещи!";
+            } else if (decision.getValue()) {
+                if (approved.stream().anyMatch(other -> overlaps(other, booking))) {
+                    error = "Вещь уже забронирована на это время!";
+                } else if (approvedInBatch.stream().anyMatch(other -> overlaps(other, booking))) {
+                    error = "Пересекается с другим подтверждаемым бронированием этой вещи!";
+                }
+            }
+            if (error != null) {
+                results.put(bookingId, BookingDecisionResult.failed(bookingId, error));
+                continue;
+            }
+            if (decision.getValue()) {
+                approvedInBatch.add(booking);
+                approvals.add(bookingId);
+            } else {
+                rejections.add(bookingId);
+            }
+        }
+        applyDecisions(ownerId, approvals, Status.APPROVED, results);
+        applyDecisions(ownerId, rejections, Status.REJECTED, results);
+        return decisions.stream()
+                .map(decision -> results.get(decision.getBookingId()))
+                .collect(Collectors.toList());
+    }
+
+    // Строки заблокированы findWaitingIdsForUpdate, поэтому UPDATE обязан изменить каждую из них
+    private void applyDecisions(Long ownerId, Set<Long> bookingIds, Status status,
+                                Map<Long, BookingDecisionResult> results) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        if (bookingRepository.updateStatusIfWaitingForOwner(bookingIds, ownerId, status) != bookingIds.size()) {
+            throw new ConflictException("Бронирования уже рассмотрены параллельным запросом!");
+        }
+        bookingIds.forEach(bookingId -> results.put(bookingId, BookingDecisionResult.applied(bookingId, status)));
+    }
+
+    private static boolean overlaps(Booking first, Booking second) {
+        return first.getItem().getId().equals(second.getItem().getId())
+                && first.getStartTime().isBefore(second.getEndTime())
+                && first.getEndTime().isAfter(second.getStartTime());
     }
 
     @Transactional(readOnly = true)
@@ -185,4 +404,86 @@ public class BookingService {
                 .map(BookingMapper::mapBookingEntityToBookingDto)
                 .collect(Collectors.toList());
     }
+
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsByBookerIdAfter(long bookerId, String state, String cursor, int size) {
+        if (!userRepository.existsById(bookerId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден!", bookerId));
+        }
+        validatePagination(0, size);
+        PageRequest pageRequest = PageRequest.of(0, size);
+        State methodState = validateBookingState(state);
+        BookingCursor after = BookingCursor.decode(cursor);
+        List<Booking> bookingList = Collections.emptyList();
+        switch (methodState) {
+            case ALL:
+                bookingList = bookingRepository.findByBookerIdAfterCursor(bookerId,
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case WAITING:
+                bookingList = bookingRepository.findByBookerIdAndStatusAfterCursor(bookerId, Status.WAITING,
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case REJECTED:
+                bookingList = bookingRepository.findByBookerIdAndStatusAfterCursor(bookerId, Status.REJECTED,
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case PAST:
+                bookingList = bookingRepository.findPastByBookerIdAfterCursor(bookerId, LocalDateTime.now(),
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case CURRENT:
+                bookingList = bookingRepository.findCurrentByBookerIdAfterCursor(bookerId, LocalDateTime.now(),
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case FUTURE:
+                bookingList = bookingRepository.findFutureByBookerIdAfterCursor(bookerId, LocalDateTime.now(),
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+        }
+        return bookingList.stream()
+                .map(BookingMapper::mapBookingEntityToBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsByOwnerIdAfter(long ownerId, String state, String cursor, int size) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден!", ownerId));
+        }
+        validatePagination(0, size);
+        PageRequest pageRequest = PageRequest.of(0, size);
+        State methodState = validateBookingState(state);
+        BookingCursor after = BookingCursor.decode(cursor);
+        List<Booking> bookingList = Collections.emptyList();
+        switch (methodState) {
+            case ALL:
+                bookingList = bookingRepository.findByOwnerIdAfterCursor(ownerId,
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case WAITING:
+                bookingList = bookingRepository.findByOwnerIdAndStatusAfterCursor(ownerId, Status.WAITING,
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case REJECTED:
+                bookingList = bookingRepository.findByOwnerIdAndStatusAfterCursor(ownerId, Status.REJECTED,
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case PAST:
+                bookingList = bookingRepository.findPastByOwnerIdAfterCursor(ownerId, LocalDateTime.now(),
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case CURRENT:
+                bookingList = bookingRepository.findCurrentByOwnerIdAfterCursor(ownerId, LocalDateTime.now(),
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+            case FUTURE:
+                bookingList = bookingRepository.findFutureByOwnerIdAfterCursor(ownerId, LocalDateTime.now(),
+                        after.getStartTime(), after.getBookingId(), pageRequest);
+                break;
+        }
+        return bookingList.stream()
+                .map(BookingMapper::mapBookingEntityToBookingDto)
+                .collect(Collectors.toList());
+    }
 }
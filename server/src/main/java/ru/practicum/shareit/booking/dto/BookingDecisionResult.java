@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.model.Status;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingDecisionResult {
+
+    Long bookingId;
+
+    Status status;
+
+    String error;
+
+    public static BookingDecisionResult applied(Long bookingId, Status status) {
+        return new BookingDecisionResult(bookingId, status, null);
+    }
+
+    public static BookingDecisionResult failed(Long bookingId, String error) {
+        return new BookingDecisionResult(bookingId, null, error);
+    }
+}
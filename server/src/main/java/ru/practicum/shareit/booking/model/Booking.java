@@ -17,10 +17,25 @@ import java.time.LocalDateTime;
 @Entity
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "item", subgraph = "item"),
+                @NamedAttributeNode("user")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = {
+                        @NamedAttributeNode("user"),
+                        @NamedAttributeNode(value = "itemRequest", subgraph = "itemRequest")
+                }),
+                @NamedSubgraph(name = "itemRequest", attributeNodes = @NamedAttributeNode("user"))
+        })
 public class Booking {
 
+    public static final String DETAILS_GRAPH = "Booking.details";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "booking_id")
     Long id;
 
@@ -43,4 +58,20 @@ public class Booking {
     @JoinColumn(name = "user_id", referencedColumnName = "user_id")
     @OnDelete(action = OnDeleteAction.CASCADE)
     User user;
+
+    // Владелец вещи, скопированный при создании: постраничный вывод владельца ищет по индексу
+    // (owner_id, start_time DESC, booking_id DESC) без соединения с items. Владелец вещи не меняется
+    @Column(name = "owner_id", updatable = false)
+    Long ownerId;
+
+    @Version
+    @Column
+    Long version;
+
+    @PrePersist
+    void fillOwnerId() {
+        if (ownerId == null && item != null && item.getUser() != null) {
+            ownerId = item.getUser().getId();
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Value;
+
+@Value
+public class CacheInvalidation {
+
+    private static final String SEPARATOR = "|";
+
+    private static final String ANY = "*";
+
+    String origin;
+
+    String entityName;
+
+    Long id;
+
+    public static CacheInvalidation entity(String origin, String entityName, Long id) {
+        return new CacheInvalidation(origin, entityName, id);
+    }
+
+    public static CacheInvalidation region(String origin, String entityName) {
+        return new CacheInvalidation(origin, entityName, null);
+    }
+
+    public static CacheInvalidation all(String origin) {
+        return new CacheInvalidation(origin, null, null);
+    }
+
+    public static CacheInvalidation fromPayload(String payload) {
+        String[] parts = payload.split("\\" + SEPARATOR, -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Не верный формат сообщения инвалидации: " + payload);
+        }
+        return new CacheInvalidation(parts[0],
+                ANY.equals(parts[1]) ? null : parts[1],
+                ANY.equals(parts[2]) ? null : Long.valueOf(parts[2]));
+    }
+
+    public String toPayload() {
+        return origin + SEPARATOR
+                + (entityName == null ? ANY : entityName) + SEPARATOR
+                + (id == null ? ANY : id.toString());
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.cache;
+
+import java.util.function.Consumer;
+
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+// Слушает события внутри транзакции: сообщение уходит в шину до коммита и доставляется другим узлам
+// только вместе с ним, при откате его никто не получит
+public class EntityCacheInvalidationListener implements PostUpdateEventListener, PostDeleteEventListener {
+
+    // Удаление пользователя каскадно удаляет его вещи и запросы в БД (ON DELETE CASCADE) в обход Hibernate
+    private static final List<String> USER_CASCADE_ENTITIES = List.of(Item.class.getName(),
+            ItemRequest.class.getName());
+
+    String nodeId = UUID.randomUUID().toString();
+
+    EntityManagerFactory entityManagerFactory;
+
+    CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        cacheInvalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+        if (User.class.getName().equals(event.getPersister().getEntityName())) {
+            USER_CASCADE_ENTITIES.forEach(entityName -> {
+                CacheInvalidation invalidation = CacheInvalidation.region(nodeId, entityName);
+                cacheInvalidationBus.publish(invalidation);
+                afterCommit(() -> evict(invalidation));
+            });
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    // Пользователь публикуется и без кэша второго уровня: по его сообщениям узлы сбрасывают кэши Spring
+    // (UserCacheInvalidationListener)
+    private void publish(EntityPersister persister, Serializable id) {
+        if (persister.canWriteToCache() || User.class.getName().equals(persister.getEntityName())) {
+            cacheInvalidationBus.publish(CacheInvalidation.entity(nodeId, persister.getEntityName(), (Long) id));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (!nodeId.equals(invalidation.getOrigin())) {
+            log.debug("Инвалидация кэша сущностей {}", invalidation);
+            evict(invalidation);
+        }
+    }
+
+    private void evict(CacheInvalidation invalidation) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        if (invalidation.getEntityName() == null) {
+            cache.evictAllRegions();
+        } else if (invalidation.getId() == null) {
+            cache.evictEntityData(invalidation.getEntityName());
+        } else {
+            cache.evictEntityData(invalidation.getEntityName(), invalidation.getId());
+        }
+    }
+}
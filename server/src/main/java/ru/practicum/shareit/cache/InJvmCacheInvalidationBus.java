@@ -0,0 +1,50 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cache.invalidation", havingValue = "in-jvm")
+public class InJvmCacheInvalidationBus implements CacheInvalidationBus {
+
+    // Общий для всех контекстов в JVM: несколько экземпляров приложения в тестах ведут себя как узлы кластера
+    private static final List<Consumer<CacheInvalidation>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // Как и NOTIFY в PostgreSQL, сообщение из транзакции доставляется только после её коммита
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(invalidation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(invalidation);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        LISTENERS.add(listener);
+    }
+
+    private void dispatch(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> listener : LISTENERS) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось применить инвалидацию кэша {}", invalidation, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cache.invalidation", havingValue = "postgres")
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final String CHANNEL = "shareit_cache_invalidation";
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    DataSource dataSource;
+
+    DataSourceProperties dataSourceProperties;
+
+    List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    Thread listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+
+    @PostConstruct
+    public void start() {
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        listenerThread.interrupt();
+    }
+
+    // Соединение текущей транзакции: PostgreSQL доставит уведомление при её коммите, второе соединение
+    // из пула не занимается. Ошибка отправки откатывает транзакцию, чтобы не потерять инвалидацию
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, invalidation.toPayload());
+            statement.execute();
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Не удалось отправить инвалидацию кэша " + invalidation, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (!Thread.currentThread().isInterrupted()) {
+            // LISTEN держит соединение всё время работы, поэтому оно открывается мимо пула
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    // Пока соединения не было, сообщения могли быть потеряны
+                    dispatch(CacheInvalidation.all(CHANNEL));
+                }
+                reconnect = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (!Thread.currentThread().isInterrupted()) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(CacheInvalidation.fromPayload(notification.getParameter()));
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Потеряно соединение канала инвалидации кэша, переподключение", e);
+                try {
+                    Thread.sleep(POLL_TIMEOUT_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void dispatch(CacheInvalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+}
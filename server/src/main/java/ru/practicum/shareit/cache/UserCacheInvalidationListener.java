@@ -0,0 +1,56 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Objects;
+
+import static ru.practicum.shareit.config.CacheConfig.USERS_CACHE;
+import static ru.practicum.shareit.config.CacheConfig.USER_EXISTS_CACHE;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+// Кэши Spring с пользователями сбрасываются по тем же сообщениям, что и кэш второго уровня. Свои сообщения
+// не отфильтровываются: на своём узле @CacheEvict уже сбросил запись, повторный сброс после коммита безвреден
+public class UserCacheInvalidationListener {
+
+    private static final List<String> CACHES = List.of(USERS_CACHE, USER_EXISTS_CACHE);
+
+    CacheManager cacheManager;
+
+    CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void register() {
+        cacheInvalidationBus.subscribe(this::onInvalidation);
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.getEntityName() != null && !User.class.getName().equals(invalidation.getEntityName())) {
+            return;
+        }
+        log.debug("Инвалидация кэшей пользователей {}", invalidation);
+        CACHES.stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(cache -> evict(cache, invalidation.getId()));
+    }
+
+    private static void evict(Cache cache, Long id) {
+        if (id == null) {
+            cache.clear();
+        } else {
+            cache.evict(id);
+        }
+    }
+}
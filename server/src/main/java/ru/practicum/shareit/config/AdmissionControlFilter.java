@@ -0,0 +1,109 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Ограничивает число одновременно обрабатываемых запросов. Каждый запрос занимает не больше одного соединения,
+// поэтому по умолчанию лимит равен размеру пула Hikari: лишние запросы сразу получают 503, а не висят в очереди
+// за соединением до таймаута. Actuator не ограничивается, чтобы проверки здоровья отвечали и под нагрузкой.
+// Потоковые импорт и выгрузка держат разрешение минутами, поэтому у них свой небольшой лимит, а общий лимит
+// по умолчанию уменьшен на столько же соединений
+@Slf4j
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final Semaphore streamingPermits;
+
+    private final long maxWaitNanos;
+
+    private final ObjectMapper objectMapper;
+
+    private final Counter rejected;
+
+    private final Counter streamingRejected;
+
+    public AdmissionControlFilter(
+            @Value("${shareit.admission.max-concurrent:#{${spring.datasource.hikari.maximum-pool-size:10}"
+                    + " - ${shareit.admission.max-concurrent-streaming:2}}}")
+            int maxConcurrent,
+            @Value("${shareit.admission.max-concurrent-streaming:2}") int maxConcurrentStreaming,
+            @Value("${shareit.admission.max-wait:50ms}") Duration maxWait,
+            ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        // В срезах @WebMvcTest метрики не настраиваются
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.permits = new Semaphore(maxConcurrent);
+        this.streamingPermits = new Semaphore(maxConcurrentStreaming);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.objectMapper = objectMapper;
+        this.rejected = meterRegistry.counter("server.admission.rejected");
+        this.streamingRejected = meterRegistry.counter("server.admission.streaming.rejected");
+        Gauge.builder("server.admission.in.flight", permits, p -> maxConcurrent - p.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("server.admission.streaming.in.flight", streamingPermits,
+                        p -> maxConcurrentStreaming - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    // POST /items/bulk и GET /bookings/export
+    private static boolean isStreaming(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "POST".equals(request.getMethod()) && "/items/bulk".equals(path)
+                || "GET".equals(request.getMethod()) && "/bookings/export".equals(path);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean streaming = isStreaming(request);
+        Semaphore admission = streaming ? streamingPermits : permits;
+        boolean acquired;
+        try {
+            acquired = admission.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("Request rejected by admission control: {} {}", request.getMethod(), request.getRequestURI());
+            (streaming ? streamingRejected : rejected).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Server is overloaded"));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+}
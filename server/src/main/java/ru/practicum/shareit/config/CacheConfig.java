@@ -0,0 +1,26 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+
+    public static final String USER_EXISTS_CACHE = "userExists";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.users.spec}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS_CACHE, USER_EXISTS_CACHE);
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -1,15 +1,23 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoUpdate;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -21,6 +29,10 @@ public class ItemController {
 
     ItemService itemService;
 
+    ItemImportService itemImportService;
+
+    ObjectMapper objectMapper;
+
     @PostMapping()
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody ItemDto itemDto) {
         ItemDto addedItem = itemService.addItem(userId, itemDto);
@@ -28,6 +40,29 @@ public class ItemController {
         return addedItem;
     }
 
+    // Результаты по каждой записи пишутся в ответ построчно (NDJSON) по мере сохранения пачек. Тип ответа
+    // выставляется при первой записи: до неё сервис проверяет пользователя и первую запись, и ErrorHandler
+    // ещё может вернуть ErrorResponse в JSON
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        SequenceWriter[] results = new SequenceWriter[1];
+        itemImportService.importItems(userId, request.getInputStream(), result -> {
+            try {
+                if (results[0] == null) {
+                    results[0] = ndjsonWriter(response);
+                }
+                results[0].write(result);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (results[0] == null) {
+            results[0] = ndjsonWriter(response);
+        }
+        results[0].flush();
+    }
+
     @PatchMapping(value = "/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
                               @RequestBody ItemDtoUpdate itemDto, @PathVariable Long itemId) {
@@ -38,8 +73,12 @@ public class ItemController {
 
     @GetMapping(value = "/{itemId}")
     public ItemDto getItemById(@RequestHeader(value = "X-Sharer-User-Id") long userId,
-                               @PathVariable long itemId) {
-        ItemDto itemDto = itemService.getItemById(itemId, userId);
+                               @PathVariable long itemId,
+                               WebRequest webRequest) {
+        ItemDto itemDto = itemService.getItemById(itemId, userId, webRequest::checkNotModified);
+        if (itemDto == null) {
+            return null;
+        }
         log.info("Получили Item: {}", itemDto);
         return itemDto;
     }
@@ -70,4 +109,9 @@ public class ItemController {
         log.info("Пользователь id={} добавил комментарий вещи id={}: {}", userId, itemId, addedComment);
         return addedComment;
     }
+
+    private SequenceWriter ndjsonWriter(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return objectMapper.writer().withRootValueSeparator("\n").writeValues(response.getOutputStream());
+    }
 }
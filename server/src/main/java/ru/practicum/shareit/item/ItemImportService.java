@@ -0,0 +1,223 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.item.model.ItemMapper.mapItemDtoToItem;
+
+// Импорт читает записи по одной и сохраняет их пачками в отдельных транзакциях: в памяти одновременно
+// находится не больше одной пачки, независимо от размера загрузки
+@Slf4j
+@Service
+public class ItemImportService {
+
+    private final ItemRepository itemRepository;
+
+    private final UserRepository userRepository;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final int batchSize;
+
+    public ItemImportService(ItemRepository itemRepository,
+                             UserRepository userRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             ItemSearchEngine itemSearchEngine,
+                             EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             @Value("${shareit.items.import.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    // Принимает JSON-массив или NDJSON: MappingIterator разворачивает корневой массив сам.
+    // Результаты идут не по порядку записей: ошибки разбора и валидации выдаются сразу, а созданные
+    // записи - после фиксации их пачки, поэтому клиент сопоставляет их по index
+    public void importItems(long userId, InputStream body, Consumer<ItemImportResult> results) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден", userId));
+        }
+        List<IndexedItem> batch = new ArrayList<>(batchSize);
+        int index = 0;
+        int created = 0;
+        try (MappingIterator<ItemDto> records = openRecords(body)) {
+            while (true) {
+                ItemDto itemDto;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    itemDto = records.nextValue();
+                } catch (JsonParseException e) {
+                    // Ответ ещё пуст только до первой записи: тогда это ошибка запроса, а не результат записи
+                    if (index == 0) {
+                        throw new BadRequestException("Некорректный JSON: " + e.getOriginalMessage());
+                    }
+                    results.accept(ItemImportResult.failed(index, "Некорректный JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    results.accept(ItemImportResult.failed(index++, "Некорректная запись: " + e.getOriginalMessage()));
+                    continue;
+                }
+                String error = validate(itemDto);
+                if (error != null) {
+                    results.accept(ItemImportResult.failed(index++, error));
+                    continue;
+                }
+                batch.add(new IndexedItem(index++, itemDto));
+                if (batch.size() == batchSize) {
+                    int saved = saveBatch(userId, batch, results);
+                    if (saved < 0) {
+                        return;
+                    }
+                    created += saved;
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            int saved = saveBatch(userId, batch, results);
+            if (saved < 0) {
+                return;
+            }
+            created += saved;
+        }
+        log.info("Импорт вещей пользователя id={}: записей {}, добавлено {}", userId, index, created);
+    }
+
+    // Первый токен читается уже при создании итератора
+    private MappingIterator<ItemDto> openRecords(InputStream body) throws IOException {
+        try {
+            return objectMapper.readerFor(ItemDto.class).readValues(body);
+        } catch (JsonParseException e) {
+            throw new BadRequestException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private String validate(ItemDto itemDto) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    // Возвращает число созданных записей или -1, если транзакция пачки не прошла: тогда по каждой записи
+    // пачки уже выдан failed, и импорт останавливается - следующие записи клиент может прислать повторно
+    private int saveBatch(long userId, List<IndexedItem> batch, Consumer<ItemImportResult> results) {
+        List<ItemImportResult> rejected = new ArrayList<>();
+        List<IndexedItem> saved;
+        try {
+            saved = transactionTemplate.execute(status -> saveBatchInTransaction(userId, batch, rejected));
+        } catch (RuntimeException e) {
+            log.error("Импорт вещей пользователя id={}: пачка записей {}-{} не сохранена", userId,
+                    batch.get(0).index, batch.get(batch.size() - 1).index, e);
+            for (IndexedItem record : batch) {
+                results.accept(ItemImportResult.failed(record.index, "Пачка не сохранена, импорт остановлен"));
+            }
+            return -1;
+        }
+        // Отказы выдаются только после фиксации: при откате пачки они заменились бы общей ошибкой
+        rejected.forEach(results);
+        for (IndexedItem record : saved) {
+            itemSearchEngine.index(record.item);
+            results.accept(ItemImportResult.created(record.index, record.item.getId()));
+        }
+        return saved.size();
+    }
+
+    private List<IndexedItem> saveBatchInTransaction(long userId, List<IndexedItem> batch,
+                                                     List<ItemImportResult> rejected) {
+        User user = userRepository.getReferenceById(userId);
+        Map<Long, ItemRequest> itemRequests = itemRequestRepository.findAllById(batch.stream()
+                        .map(record -> record.itemDto.getRequestId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        List<IndexedItem> valid = new ArrayList<>(batch.size());
+        for (IndexedItem record : batch) {
+            Long requestId = record.itemDto.getRequestId();
+            if (requestId != null && !itemRequests.containsKey(requestId)) {
+                rejected.add(ItemImportResult.failed(record.index,
+                        String.format("Запрос id=%s не найден", requestId)));
+                continue;
+            }
+            record.itemDto.setId(null);
+            record.item = mapItemDtoToItem(record.itemDto);
+            record.item.setUser(user);
+            record.item.setItemRequest(itemRequests.get(requestId));
+            valid.add(record);
+        }
+        itemRepository.saveAll(valid.stream().map(record -> record.item).collect(Collectors.toList()));
+        entityManager.flush();
+        entityManager.clear();
+        return valid;
+    }
+
+    private static class IndexedItem {
+
+        private final int index;
+
+        private final ItemDto itemDto;
+
+        private Item item;
+
+        private IndexedItem(int index, ItemDto itemDto) {
+            this.index = index;
+            this.itemDto = itemDto;
+        }
+    }
+}
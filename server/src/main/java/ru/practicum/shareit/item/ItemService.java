@@ -4,14 +4,17 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBooking;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoUpdate;
 import ru.practicum.shareit.item.model.Comment;
@@ -19,6 +22,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
@@ -26,7 +30,9 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.exception.Validation.validatePagination;
@@ -47,13 +53,31 @@ public class ItemService {
 
     ItemRequestRepository itemRequestRepository;
 
-    private void setLastAndNextBookings(ItemDto itemDto) {
-        bookingRepository.findFirstByItemIdAndAndStartTimeBeforeAndStatusEqualsOrderByStartTimeDesc(
-                        itemDto.getId(), LocalDateTime.now(), Status.APPROVED)
-                .ifPresent(booking -> itemDto.setLastBooking(mapBookingDtoToItemBooking(booking)));
-        bookingRepository.findFirstByItemIdAndAndStartTimeAfterAndStatusEqualsOrderByStartTimeAsc(
-                        itemDto.getId(), LocalDateTime.now(), Status.APPROVED)
-                .ifPresent(booking -> itemDto.setNextBooking(mapBookingDtoToItemBooking(booking)));
+    ItemSearchEngine itemSearchEngine;
+
+    private void setLastAndNextBookings(List<ItemDto> itemDtos) {
+        if (itemDtos.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = itemDtos.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBooking> lastBookings = mapBookingsByItemId(
+                bookingRepository.findLastBookingsByItemIds(itemIds, now, Status.APPROVED));
+        Map<Long, ItemBooking> nextBookings = mapBookingsByItemId(
+                bookingRepository.findNextBookingsByItemIds(itemIds, now, Status.APPROVED));
+        itemDtos.forEach(itemDto -> {
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+        });
+    }
+
+    private static Map<Long, ItemBooking> mapBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(),
+                        ItemMapper::mapBookingDtoToItemBooking,
+                        (first, second) -> first));
     }
 
     @Transactional
@@ -67,43 +91,56 @@ public class ItemService {
                     .orElseThrow(() -> new NotFoundException(String.format("Запрос id=%s не найден", requestId))));
         }
         item.setUser(user);
-        return mapItemToItemDto(itemRepository.save(item));
+        Item addedItem = itemRepository.save(item);
+        itemSearchEngine.index(addedItem);
+        return mapItemToItemDto(addedItem);
     }
 
     @Transactional
     public ItemDto updateItem(long userId, ItemDtoUpdate itemDtoUpdate, long itemId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь id=%s не найдена", itemId)));
-        User user = userRepository.findById(userId)
+        userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь id=%s не найден", userId)));
         if (userId != item.getUser().getId()) {
             throw new ForbiddenException(String.format("Пользователь id=%s не соответствует вещи", userId));
         }
-        Item itemToUpdate = mapItemDtoToItem(itemDtoUpdate);
-        itemToUpdate.setUser(user);
-        itemToUpdate.setId(itemId);
-        if (itemDtoUpdate.getName() == null) {
-            itemToUpdate.setName(item.getName());
+        if (itemDtoUpdate.getName() != null) {
+            item.setName(itemDtoUpdate.getName());
         }
-        if (itemDtoUpdate.getDescription() == null) {
-            itemToUpdate.setDescription(item.getDescription());
+        if (itemDtoUpdate.getDescription() != null) {
+            item.setDescription(itemDtoUpdate.getDescription());
         }
-        if (itemDtoUpdate.getAvailable() == null) {
-            itemToUpdate.setAvailable(item.getAvailable());
+        if (itemDtoUpdate.getAvailable() != null) {
+            item.setAvailable(itemDtoUpdate.getAvailable());
         }
-        return mapItemToItemDto(itemRepository.save(itemToUpdate));
+        Item updatedItem = itemRepository.save(item);
+        itemSearchEngine.index(updatedItem);
+        return mapItemToItemDto(updatedItem);
     }
 
     @Transactional(readOnly = true)
     public ItemDto getItemById(long itemId, long userId) {
+        return getItemById(itemId, userId, null);
+    }
+
+    // Тег считается по уже загруженной вещи. Если notModified его принимает, возвращается null, а комментарии
+    // не загружаются. Для владельца тега нет: lastBooking и nextBooking меняются со временем без изменения данных
+    @Transactional(readOnly = true)
+    public ItemDto getItemById(long itemId, long userId, @Nullable Predicate<String> notModified) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException(String.format("Пользователь id=%s не найден", userId));
         }
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь id=%s не найдена", itemId)));
+        boolean owner = userId == item.getUser().getId();
+        if (!owner && notModified != null && notModified.test(String.format("item-%d-%d-%s", itemId, item.getVersion(),
+                commentRepository.summarizeByItemId(itemId).toTag()))) {
+            return null;
+        }
         ItemDto itemDto = mapItemToItemDto(item);
-        if (userId == item.getUser().getId()) {
-            setLastAndNextBookings(itemDto);
+        if (owner) {
+            setLastAndNextBookings(List.of(itemDto));
         }
         Set<CommentDto> comments = commentRepository.findByItemId(itemId).stream()
                 .map(ItemMapper::mapCommentEntityToCommentDto)
@@ -119,10 +156,11 @@ public class ItemService {
         }
         validatePagination(from, size);
         PageRequest pageRequest = PageRequest.of(from / size, size);
-        return itemRepository.findByUserIdOrderByIdAsc(userId, pageRequest).stream()
+        List<ItemDto> items = itemRepository.findByUserIdOrderByIdAsc(userId, pageRequest).stream()
                 .map(ItemMapper::mapItemToItemDto)
-                .peek(this::setLastAndNextBookings)
                 .collect(Collectors.toList());
+        setLastAndNextBookings(items);
+        return items;
     }
 
     @Transactional(readOnly = true)
@@ -132,9 +170,7 @@ public class ItemService {
         }
         validatePagination(from, size);
         PageRequest pageRequest = PageRequest.of(from / size, size);
-        return itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(text, text, pageRequest)
-                .stream()
-                .filter(itemEntity -> itemEntity.getAvailable().equals(Boolean.TRUE))
+        return itemSearchEngine.search(text, pageRequest).stream()
                 .map(ItemMapper::mapItemToItemDto)
                 .collect(Collectors.toList());
     }
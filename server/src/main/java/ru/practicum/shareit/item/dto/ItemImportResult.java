@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+
+    // Порядковый номер записи во входном потоке, начиная с 0
+    int index;
+
+    Long id;
+
+    String error;
+
+    public static ItemImportResult created(int index, Long id) {
+        return new ItemImportResult(index, id, null);
+    }
+
+    public static ItemImportResult failed(int index, String error) {
+        return new ItemImportResult(index, null, error);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+@Value
+public class VersionSummary {
+
+    Long count;
+
+    Long maxId;
+
+    Long versionSum;
+
+    // Добавление строки меняет count и maxId, изменение существующей - versionSum
+    public String toTag() {
+        return count + "-" + maxId + "-" + versionSum;
+    }
+}
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.VersionSummary;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
@@ -10,4 +13,8 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByItemId(Long itemId);
+
+    @Query("select new ru.practicum.shareit.item.dto.VersionSummary(count(c), coalesce(max(c.id), 0L), " +
+            "coalesce(sum(u.version), 0L)) from Comment c join c.user u where c.item.id = :itemId")
+    VersionSummary summarizeByItemId(@Param("itemId") Long itemId);
 }
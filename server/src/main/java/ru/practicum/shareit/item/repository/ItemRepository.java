@@ -1,19 +1,47 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.VersionSummary;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByUserIdOrderByIdAsc(Long userId, PageRequest pageRequest);
 
-    List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-            String name, String description, PageRequest pageRequest);
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (upper(i.name) like upper(:pattern) escape '\\' " +
+            "or upper(i.description) like upper(:pattern) escape '\\') " +
+            "order by case when upper(i.name) like upper(:pattern) escape '\\' then 0 else 1 end, i.id")
+    List<Item> searchAvailable(@Param("pattern") String pattern, PageRequest pageRequest);
 
-    List<Item> findByItemRequestId(Long id);
+    List<Item> findByItemRequestIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"user", "itemRequest"})
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.dto.VersionSummary(count(i), coalesce(max(i.id), 0L), " +
+            "coalesce(sum(i.version), 0L)) from Item i where i.itemRequest.id = :requestId")
+    VersionSummary summarizeByItemRequestId(@Param("requestId") Long requestId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    // Блокировки берутся в порядке id: пакетные подтверждения с пересекающимися вещами не ждут друг друга по кругу
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :ids order by i.id")
+    List<Item> findByIdInForUpdate(@Param("ids") Collection<Long> ids);
 }
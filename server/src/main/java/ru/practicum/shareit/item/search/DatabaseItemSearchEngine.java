@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+
+    ItemRepository itemRepository;
+
+    private static String toContainsPattern(String text) {
+        String escaped = text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        return itemRepository.searchAvailable(toContainsPattern(text), pageRequest);
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void removeByOwner(long userId) {
+    }
+}
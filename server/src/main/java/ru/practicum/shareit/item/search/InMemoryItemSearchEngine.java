@@ -0,0 +1,297 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int NAME_WEIGHT = 2;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Слова индексируются всеми подстроками длиной до GRAM_SIZE: короткий запрос находит слова одним
+    // обращением к карте, длинный - пересечением множеств по его n-граммам без перебора словаря
+    private static final int GRAM_SIZE = 3;
+
+    ItemRepository itemRepository;
+
+    Map<String, Set<Long>> postings = new HashMap<>();
+
+    Map<String, Set<String>> grams = new HashMap<>();
+
+    Map<Long, IndexedItem> documents = new HashMap<>();
+
+    Map<Long, Set<Long>> itemsByOwner = new HashMap<>();
+
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> gramsOf(String term, int size) {
+        Set<String> result = new HashSet<>();
+        for (int length = 1; length <= size; length++) {
+            for (int start = 0; start + length <= term.length(); start++) {
+                result.add(term.substring(start, start + length));
+            }
+        }
+        return result;
+    }
+
+    private static boolean containsTerm(Set<String> terms, String queryTerm) {
+        return terms.stream().anyMatch(term -> term.contains(queryTerm));
+    }
+
+    private static int score(IndexedItem document, Set<String> queryTerms) {
+        int score = 0;
+        for (String queryTerm : queryTerms) {
+            if (containsTerm(document.getNameTerms(), queryTerm)) {
+                score += NAME_WEIGHT;
+            }
+            if (containsTerm(document.getDescriptionTerms(), queryTerm)) {
+                score += DESCRIPTION_WEIGHT;
+            }
+        }
+        return score;
+    }
+
+    // Индекс общий для всех запросов, поэтому изменения из транзакции применяются только после её коммита
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            grams.clear();
+            documents.clear();
+            itemsByOwner.clear();
+            items.forEach(item -> put(toDocument(item)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Построен индекс поиска вещей: {} вещей, {} слов", items.size(), postings.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        IndexedItem document = toDocument(item);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(document.getId());
+                put(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void removeByOwner(long userId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Set<Long> ids = itemsByOwner.remove(userId);
+                if (ids != null) {
+                    ids.forEach(this::remove);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        Set<String> queryTerms = tokenize(text);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = findCandidates(queryTerms).stream()
+                    .map(documents::get)
+                    .filter(IndexedItem::isAvailable)
+                    .sorted(Comparator.comparingInt((IndexedItem document) -> score(document, queryTerms))
+                            .reversed()
+                            .thenComparing(IndexedItem::getId))
+                    .skip(pageRequest.getOffset())
+                    .limit(pageRequest.getPageSize())
+                    .map(IndexedItem::getId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> findCandidates(Set<String> queryTerms) {
+        Set<Long> candidates = null;
+        for (String queryTerm : queryTerms) {
+            Set<Long> matched = new HashSet<>();
+            findTerms(queryTerm).forEach(term -> matched.addAll(postings.get(term)));
+            if (candidates == null) {
+                candidates = matched;
+            } else {
+                candidates.retainAll(matched);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private Set<String> findTerms(String queryTerm) {
+        if (queryTerm.length() <= GRAM_SIZE) {
+            return grams.getOrDefault(queryTerm, Collections.emptySet());
+        }
+        List<Set<String>> gramTerms = new ArrayList<>();
+        for (int start = 0; start + GRAM_SIZE <= queryTerm.length(); start++) {
+            Set<String> terms = grams.get(queryTerm.substring(start, start + GRAM_SIZE));
+            if (terms == null) {
+                return Collections.emptySet();
+            }
+            gramTerms.add(terms);
+        }
+        gramTerms.sort(Comparator.comparingInt(Set::size));
+        // Совпадение всех n-грамм необходимо, но не достаточно: порядок проверяется на коротком списке
+        return gramTerms.get(0).stream()
+                .filter(term -> gramTerms.stream().allMatch(terms -> terms.contains(term)))
+                .filter(term -> term.contains(queryTerm))
+                .collect(Collectors.toSet());
+    }
+
+    private IndexedItem toDocument(Item item) {
+        return new IndexedItem(item.getId(), item.getUser() != null ? item.getUser().getId() : null,
+                tokenize(item.getName()), tokenize(item.getDescription()),
+                Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    private void put(IndexedItem document) {
+        documents.put(document.getId(), document);
+        if (document.getOwnerId() != null) {
+            itemsByOwner.computeIfAbsent(document.getOwnerId(), key -> new HashSet<>()).add(document.getId());
+        }
+        Set<String> terms = new HashSet<>(document.getNameTerms());
+        terms.addAll(document.getDescriptionTerms());
+        terms.forEach(term -> postings.computeIfAbsent(term, key -> {
+            gramsOf(term, GRAM_SIZE).forEach(gram -> grams.computeIfAbsent(gram, g -> new HashSet<>()).add(term));
+            return new HashSet<>();
+        }).add(document.getId()));
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        if (document.getOwnerId() != null) {
+            Set<Long> owned = itemsByOwner.get(document.getOwnerId());
+            if (owned != null) {
+                owned.remove(itemId);
+                if (owned.isEmpty()) {
+                    itemsByOwner.remove(document.getOwnerId());
+                }
+            }
+        }
+        Set<String> terms = new HashSet<>(document.getNameTerms());
+        terms.addAll(document.getDescriptionTerms());
+        terms.forEach(term -> {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                    removeGrams(term);
+                }
+            }
+        });
+    }
+
+    private void removeGrams(String term) {
+        gramsOf(term, GRAM_SIZE).forEach(gram -> {
+            Set<String> terms = grams.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        });
+    }
+
+    @Value
+    private static class IndexedItem {
+
+        Long id;
+
+        Long ownerId;
+
+        Set<String> nameTerms;
+
+        Set<String> descriptionTerms;
+
+        boolean available;
+    }
+}
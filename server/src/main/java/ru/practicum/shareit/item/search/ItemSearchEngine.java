@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, PageRequest pageRequest);
+
+    void index(Item item);
+
+    // Вещи удаляются вместе с владельцем каскадом в БД, в обход сервиса вещей
+    void removeByOwner(long userId);
+}
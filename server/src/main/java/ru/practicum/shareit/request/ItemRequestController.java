@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -46,7 +47,11 @@ public class ItemRequestController {
 
     @GetMapping(path = "/{requestId}")
     public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable long requestId) {
+                                             @PathVariable long requestId,
+                                             WebRequest webRequest) {
+        if (webRequest.checkNotModified(itemRequestService.getItemRequestTag(userId, requestId))) {
+            return null;
+        }
         ItemRequestDto itemRequestDto = itemRequestService.getItemRequestById(userId, requestId);
         log.info("Получен запрос предмета: {}", itemRequestDto);
         return itemRequestDto;
@@ -7,17 +7,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestMapper;
 import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.function.BiConsumer;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.exception.Validation.validatePagination;
@@ -34,31 +35,42 @@ public class ItemRequestService {
 
     ItemRepository itemRepository;
 
-    BiConsumer<ItemRequestDto, ItemRepository> setItems = (itemRequestDto, repository) ->
-            itemRequestDto.setItems((repository.findByItemRequestId(itemRequestDto.getId())).stream()
-                    .map(ItemMapper::mapItemToItemDto).collect(Collectors.toList()));
+    private List<ItemRequestDto> setItems(List<ItemRequestDto> itemRequestDtos) {
+        if (itemRequestDtos.isEmpty()) {
+            return itemRequestDtos;
+        }
+        List<Long> itemRequestIds = itemRequestDtos.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequestId = itemRepository.findByItemRequestIdIn(itemRequestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId(),
+                        Collectors.mapping(ItemMapper::mapItemToItemDto, Collectors.toList())));
+        itemRequestDtos.forEach(itemRequestDto -> itemRequestDto.setItems(
+                itemsByRequestId.getOrDefault(itemRequestDto.getId(), new ArrayList<>())));
+        return itemRequestDtos;
+    }
 
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getItemRequestsByUserId(long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь id=%s не найден.", userId)));
-        return itemRequestRepository.findByUserIdOrderByCreatedAsc(user.getId()).stream()
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден.", userId));
+        }
+        return setItems(itemRequestRepository.findByUserIdOrderByCreatedAsc(userId).stream()
                 .map(ItemRequestMapper::mapItemRequestToDto)
-                .peek(itemRequestDto -> setItems.accept(itemRequestDto, itemRepository))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getItemRequestsByOtherUsers(long userId, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь id=%s не найден.", userId)));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден.", userId));
+        }
         validatePagination(from, size);
         PageRequest pageRequest = PageRequest.of(from / size, size);
-        return itemRequestRepository
-                .findByUserIdNotOrderByCreatedAsc(user.getId(), pageRequest).stream()
+        return setItems(itemRequestRepository
+                .findByUserIdNotOrderByCreatedAsc(userId, pageRequest).stream()
                 .map(ItemRequestMapper::mapItemRequestToDto)
-                .peek(itemRequestDto -> setItems.accept(itemRequestDto, itemRepository))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Transactional
@@ -74,12 +86,25 @@ public class ItemRequestService {
 
     @Transactional(readOnly = true)
     public ItemRequestDto getItemRequestById(long userId, long itemRequestId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь id=%s не найден.", userId)));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден.", userId));
+        }
         ItemRequestDto itemRequestDto = mapItemRequestToDto(itemRequestRepository.findById(itemRequestId)
                 .orElseThrow(() -> new NotFoundException(
                         String.format("Запрос предмета id=%s не найден.", itemRequestId))));
-        setItems.accept(itemRequestDto, itemRepository);
+        setItems(List.of(itemRequestDto));
         return itemRequestDto;
     }
+
+    @Transactional(readOnly = true)
+    public String getItemRequestTag(long userId, long itemRequestId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь id=%s не найден.", userId));
+        }
+        ItemRequest itemRequest = itemRequestRepository.findById(itemRequestId)
+                .orElseThrow(() -> new NotFoundException(
+                        String.format("Запрос предмета id=%s не найден.", itemRequestId)));
+        return String.format("request-%d-%d-%s", itemRequestId, itemRequest.getVersion(),
+                itemRepository.summarizeByItemRequestId(itemRequestId).toTag());
+    }
 }
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoUpdate;
 
@@ -42,7 +43,10 @@ public class UserController {
     }
 
     @GetMapping(value = "/{id}")
-    public UserDto getUserById(@PathVariable long id) {
+    public UserDto getUserById(@PathVariable long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(userService.getUserTag(id))) {
+            return null;
+        }
         UserDto user = userService.getUserById(id);
         log.info("Получили пользователя: {}", user);
         return user;
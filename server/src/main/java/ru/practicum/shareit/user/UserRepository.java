@@ -1,12 +1,18 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import static ru.practicum.shareit.config.CacheConfig.USER_EXISTS_CACHE;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    @Override
+    @Cacheable(cacheNames = USER_EXISTS_CACHE, unless = "!#result")
+    boolean existsById(Long id);
 }
@@ -3,10 +3,13 @@ package ru.practicum.shareit.user;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoUpdate;
 import ru.practicum.shareit.user.model.User;
@@ -15,6 +18,8 @@ import ru.practicum.shareit.user.model.UserMapper;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.config.CacheConfig.USERS_CACHE;
+import static ru.practicum.shareit.config.CacheConfig.USER_EXISTS_CACHE;
 import static ru.practicum.shareit.user.model.UserMapper.mapUserEntityToUserDto;
 
 @Service
@@ -23,13 +28,23 @@ import static ru.practicum.shareit.user.model.UserMapper.mapUserEntityToUserDto;
 public class UserService {
     UserRepository userRepository;
 
+    ItemSearchEngine itemSearchEngine;
+
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = USERS_CACHE)
     public UserDto getUserById(long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь id='%s' не найден", id)));
         return mapUserEntityToUserDto(user);
     }
 
+    @Transactional(readOnly = true)
+    public String getUserTag(long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь id='%s' не найден", id)));
+        return String.format("user-%d-%d", id, user.getVersion());
+    }
+
     @Transactional
     public UserDto addUser(UserDto userDto) {
         User user = UserMapper.mapUserDtoToUser(userDto);
@@ -37,6 +52,7 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {USERS_CACHE, USER_EXISTS_CACHE}, key = "#id")
     public UserDto updateUser(long id, UserDtoUpdate userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь id='%s' не найден", id)));
@@ -45,15 +61,13 @@ public class UserService {
             throw new AlreadyExistsException(
                     String.format("Пользователь с email: '%s' уже существует", userDto.getEmail()));
         }
-        userDto.setId(id);
-        User userToUpdate = UserMapper.mapUserDtoToUser(userDto);
-        if (userToUpdate.getName() == null) {
-            userToUpdate.setName(user.getName());
+        if (userDto.getName() != null) {
+            user.setName(userDto.getName());
         }
-        if (userToUpdate.getEmail() == null) {
-            userToUpdate.setEmail(user.getEmail());
+        if (userDto.getEmail() != null) {
+            user.setEmail(userDto.getEmail());
         }
-        return mapUserEntityToUserDto(userRepository.save(userToUpdate));
+        return mapUserEntityToUserDto(userRepository.save(user));
     }
 
     @Transactional(readOnly = true)
@@ -64,10 +78,12 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {USERS_CACHE, USER_EXISTS_CACHE}, key = "#id")
     public void deleteUserById(long id) {
         if (userRepository.findById(id).isEmpty()) {
             throw new NotFoundException(String.format("Пользователь id='%s' не найден", id));
         }
         userRepository.deleteById(id);
+        itemSearchEngine.removeByOwner(id);
     }
 }
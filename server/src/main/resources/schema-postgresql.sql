@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS IX_items_name_trgm ON public.items
+	USING gin (upper(name) gin_trgm_ops) WHERE available = true;
+
+CREATE INDEX IF NOT EXISTS IX_items_description_trgm ON public.items
+	USING gin (upper(description) gin_trgm_ops) WHERE available = true;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE public.bookings ADD CONSTRAINT EX_bookings_item_id_approved_period
+	EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&) WHERE (status = 'APPROVED');
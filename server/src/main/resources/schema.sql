@@ -3,37 +3,51 @@ DROP TABLE IF EXISTS comments;
 DROP TABLE IF EXISTS items;
 DROP TABLE IF EXISTS item_requests;
 DROP TABLE IF EXISTS users;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS item_requests_seq;
+DROP SEQUENCE IF EXISTS users_seq;
+
+CREATE SEQUENCE IF NOT EXISTS public.users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.item_requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.bookings_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS public.users (
-	user_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+	user_id BIGINT NOT NULL,
 	email varchar(255) NOT NULL UNIQUE,
 	name varchar(255) NOT NULL UNIQUE,
+	version BIGINT DEFAULT 0 NOT NULL,
 	CONSTRAINT PK_users PRIMARY KEY (user_id)
 );
 
 CREATE TABLE IF NOT EXISTS public.item_requests (
-	item_request_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+	item_request_id BIGINT NOT NULL,
 	created timestamp NOT NULL,
 	description varchar(255) NOT NULL,
 	user_id BIGINT NOT NULl,
+	version BIGINT DEFAULT 0 NOT NULL,
 	CONSTRAINT PK_item_requests PRIMARY KEY (item_request_id),
 	CONSTRAINT FK_item_requests FOREIGN KEY (user_id) REFERENCES public.users(user_id) ON DELETE CASCADE ON UPDATE RESTRICT
 );
 
 CREATE TABLE IF NOT EXISTS public.items (
-	item_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+	item_id BIGINT NOT NULL,
 	available bool NOT NULL,
 	description varchar(255) NOT NULL,
 	name varchar(255) NOT NULL,
 	user_id BIGINT NOT NULL,
 	item_request_id BIGINT NULL,
+	version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT PK_items PRIMARY KEY (item_id),
 	CONSTRAINT FK1_items FOREIGN KEY (user_id) REFERENCES public.users(user_id) ON DELETE CASCADE ON UPDATE RESTRICT,
 	CONSTRAINT FK2_items FOREIGN KEY (item_request_id) REFERENCES public.item_requests(item_request_id) ON DELETE CASCADE ON UPDATE RESTRICT
 );
 
 CREATE TABLE IF NOT EXISTS public.comments (
-	comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+	comment_id BIGINT NOT NULL,
 	created timestamp NOT NULL,
 	text varchar(255) NOT NULL,
 	item_id BIGINT NOT NULL,
@@ -44,13 +58,36 @@ CREATE TABLE IF NOT EXISTS public.comments (
 );
 
 CREATE TABLE IF NOT EXISTS public.bookings (
-	booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+	booking_id BIGINT NOT NULL,
 	end_time timestamp NOT NULL,
 	start_time timestamp NOT NULL,
 	status varchar(255) NOT NULL,
 	item_id BIGINT NOT NULL,
 	user_id BIGINT NOT NULL,
+	owner_id BIGINT NOT NULL,
+	version BIGINT DEFAULT 0 NOT NULL,
 	CONSTRAINT PK_bookings PRIMARY KEY (booking_id),
 	CONSTRAINT FK1_bookings_item_id FOREIGN KEY (item_id) REFERENCES public.items(item_id) ON DELETE CASCADE ON UPDATE RESTRICT,
-	CONSTRAINT FK2_bookings_user_id FOREIGN KEY (user_id) REFERENCES public.users(user_id) ON DELETE CASCADE ON UPDATE RESTRICT
+	CONSTRAINT FK2_bookings_user_id FOREIGN KEY (user_id) REFERENCES public.users(user_id) ON DELETE CASCADE ON UPDATE RESTRICT,
+	CONSTRAINT FK3_bookings_owner_id FOREIGN KEY (owner_id) REFERENCES public.users(user_id) ON DELETE CASCADE ON UPDATE RESTRICT
 );
+
+CREATE INDEX IF NOT EXISTS IX_bookings_user_id_start_time ON public.bookings (user_id, start_time DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS IX_bookings_item_id_start_time ON public.bookings (item_id, start_time DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS IX_bookings_owner_id_start_time ON public.bookings (owner_id, start_time DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS IX_bookings_user_id_status_start_time ON public.bookings (user_id, status, start_time DESC);
+
+CREATE INDEX IF NOT EXISTS IX_bookings_item_id_status_start_time ON public.bookings (item_id, status, start_time);
+
+CREATE INDEX IF NOT EXISTS IX_items_user_id ON public.items (user_id, item_id);
+
+CREATE INDEX IF NOT EXISTS IX_items_item_request_id ON public.items (item_request_id);
+
+CREATE INDEX IF NOT EXISTS IX_comments_item_id ON public.comments (item_id);
+
+CREATE INDEX IF NOT EXISTS IX_item_requests_user_id_created ON public.item_requests (user_id, created);
+
+CREATE INDEX IF NOT EXISTS IX_item_requests_created ON public.item_requests (created);
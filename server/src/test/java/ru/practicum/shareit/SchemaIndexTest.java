@@ -0,0 +1,138 @@
+package ru.practicum.shareit;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:schema-index;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.SchemaIndexTest$SqlCapture"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SchemaIndexTest {
+
+    static final Map<String, List<String>> FOREIGN_KEYS = Map.of(
+            "bookings", List.of("FK1_bookings_item_id", "FK2_bookings_user_id", "FK3_bookings_owner_id"),
+            "comments", List.of("FK1_comments_item_id", "FK2_comments_user_id"),
+            "items", List.of("FK1_items", "FK2_items"),
+            "item_requests", List.of("FK_item_requests"));
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    // Отдельная база: H2 сам индексирует внешние ключи и без статистики выбирает эти индексы вместо индексов схемы.
+    // Без внешних ключей остаются только индексы из schema.sql, а ANALYZE даёт оптимизатору их селективность
+    @BeforeAll
+    public static void prepare(@Autowired DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        FOREIGN_KEYS.forEach((table, constraints) -> constraints.forEach(constraint ->
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + constraint)));
+        jdbcTemplate.execute("DELETE FROM bookings; DELETE FROM comments; DELETE FROM items; "
+                + "DELETE FROM item_requests; DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (user_id, email, name) "
+                + "SELECT X, 'user' || X || '@mail.com', 'user' || X FROM SYSTEM_RANGE(1, 100)");
+        jdbcTemplate.update("INSERT INTO item_requests (item_request_id, created, description, user_id) "
+                + "SELECT X, DATEADD('HOUR', X, NOW()), 'request', MOD(X, 100) + 1 FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO items (item_id, available, description, name, user_id, item_request_id) "
+                + "SELECT X, TRUE, 'desc', 'item', MOD(X, 100) + 1, MOD(X, 1000) + 1 FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.update("INSERT INTO comments (comment_id, created, text, item_id, user_id) "
+                + "SELECT X, NOW(), 'text', MOD(X, 2000) + 1, MOD(X, 100) + 1 FROM SYSTEM_RANGE(1, 4000)");
+        jdbcTemplate.update("INSERT INTO bookings (booking_id, start_time, end_time, status, item_id, user_id, "
+                + "owner_id) "
+                + "SELECT X, DATEADD('HOUR', X, NOW()), DATEADD('HOUR', X + 1, NOW()), "
+                + "CASE MOD(X, 4) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END, "
+                + "MOD(X, 2000) + 1, MOD(X, 100) + 1, MOD(MOD(X, 2000) + 1, 100) + 1 FROM SYSTEM_RANGE(1, 20000)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "SELECT * FROM bookings WHERE user_id = 1 ORDER BY start_time DESC"
+                    + "| IX_bookings_user_id_start_time",
+            "SELECT * FROM bookings WHERE user_id = 1 AND status = 'WAITING' ORDER BY start_time DESC"
+                    + "| IX_bookings_user_id_status_start_time",
+            "SELECT * FROM bookings WHERE user_id = 1 AND start_time > NOW() ORDER BY start_time DESC"
+                    + "| IX_bookings_user_id_start_time",
+            "SELECT * FROM bookings WHERE item_id = 1 ORDER BY start_time DESC"
+                    + "| IX_bookings_item_id_start_time",
+            "SELECT * FROM bookings WHERE item_id IN (1, 2) AND status = 'APPROVED' AND start_time < NOW()"
+                    + "| IX_bookings_item_id_status_start_time",
+            "SELECT * FROM bookings WHERE owner_id = 1 AND (start_time < NOW() + INTERVAL '100' DAY "
+                    + "OR (start_time = NOW() + INTERVAL '100' DAY AND booking_id < 100)) "
+                    + "ORDER BY start_time DESC, booking_id DESC"
+                    + "| IX_bookings_owner_id_start_time",
+            "SELECT b.* FROM bookings b JOIN items i ON b.item_id = i.item_id WHERE i.user_id = 1 "
+                    + "ORDER BY b.start_time DESC"
+                    + "| IX_items_user_id",
+            "SELECT * FROM items WHERE user_id = 1 ORDER BY item_id"
+                    + "| IX_items_user_id",
+            "SELECT * FROM items WHERE item_request_id IN (1, 2)"
+                    + "| IX_items_item_request_id",
+            "SELECT * FROM comments WHERE item_id = 1"
+                    + "| IX_comments_item_id",
+            "SELECT * FROM item_requests WHERE user_id = 1 ORDER BY created"
+                    + "| IX_item_requests_user_id_created"
+    })
+    public void givenHotQuery_whenExplain_thenIntendedIndexUsed(String query, String index) {
+        String plan = explain(query);
+        assertTrue(plan.contains("/* PUBLIC." + index.toUpperCase(Locale.ROOT) + ":"), plan);
+    }
+
+    // Запросы чужих пользователей проверяются по SQL, который действительно генерирует Hibernate: условие
+    // user_id <> ? не даёт поиска, поэтому индекс по created читается по порядку и заменяет сортировку до LIMIT
+    @Test
+    public void givenRequestsOfOtherUsers_whenExplainGeneratedSql_thenCreatedIndexUsed() {
+        SqlCapture.statements.clear();
+        itemRequestRepository.findByUserIdNotOrderByCreatedAsc(1L, PageRequest.of(0, 20));
+        String sql = SqlCapture.statements.stream()
+                .filter(statement -> statement.contains("item_requests"))
+                .findFirst()
+                .orElseThrow();
+        // Параметры подставляются в порядке появления: user_id <> ? и limit ?
+        for (String parameter : List.of("1", "20")) {
+            sql = sql.replaceFirst("\\?", parameter);
+        }
+        String plan = explain(sql);
+        assertTrue(plan.contains("/* PUBLIC.IX_ITEM_REQUESTS_CREATED */"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    private String explain(String query) {
+        return String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN " + query)
+                .getSingleResult());
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(BookingService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingApprovalConcurrencyTest {
+
+    static final int THREADS = 16;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    User owner;
+
+    Item item;
+
+    @AfterEach
+    public void tearDown() {
+        // Без каскадов: Booking каскадно удалил бы вещь и пользователей, общих для нескольких бронирований
+        bookingRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    // Бронирования вещи создаются одной транзакцией: Item и Booking каскадно сохраняют связанных User
+    private List<Booking> createWaitingBookings(int count) {
+        return transactionTemplate.execute(status -> {
+            owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+            User booker = userRepository.save(User.builder().name("booker").email("booker@mail.com").build());
+            item = itemRepository.save(Item.builder().name("name").description("desc")
+                    .available(Boolean.TRUE).user(owner).build());
+            List<Booking> bookings = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                bookings.add(bookingRepository.save(Booking.builder().status(Status.WAITING)
+                        .startTime(LocalDateTime.now().plusHours(1)).endTime(LocalDateTime.now().plusHours(2))
+                        .item(item).user(booker).build()));
+            }
+            return bookings;
+        });
+    }
+
+    private int runConcurrently(Function<Integer, Runnable> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Runnable action = task.apply(i);
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    action.run();
+                    return true;
+                } catch (ConflictException | BadRequestException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+        return succeeded;
+    }
+
+    @Test
+    public void givenWaitingBooking_whenApprovedConcurrently_thenExactlyOneSucceeds() throws Exception {
+        Booking booking = createWaitingBookings(1).get(0);
+
+        int succeeded = runConcurrently(i -> () ->
+                bookingService.updateBooking(owner.getId(), i % 2 == 0, booking.getId()));
+
+        Booking processed = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(1, succeeded);
+        assertTrue(processed.getStatus() == Status.APPROVED || processed.getStatus() == Status.REJECTED);
+        assertEquals(booking.getVersion() + 1, processed.getVersion());
+    }
+
+    @Test
+    public void givenOverlappingBookings_whenApprovedConcurrently_thenExactlyOneApproved() throws Exception {
+        List<Booking> bookings = createWaitingBookings(THREADS);
+
+        int succeeded = runConcurrently(i -> () ->
+                bookingService.updateBooking(owner.getId(), true, bookings.get(i).getId()));
+
+        assertEquals(1, succeeded);
+        assertEquals(1, bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == Status.APPROVED)
+                .count());
+    }
+
+    @Test
+    public void givenWaitingBookings_whenSingleAndBulkDecisionsRace_thenExactlyOneReportedApplied() throws Exception {
+        // Гонка проявляется не на каждом бронировании, поэтому повторяется на нескольких
+        for (Booking booking : createWaitingBookings(20)) {
+            int succeeded = runConcurrently(i -> () -> {
+                if (i % 2 == 0) {
+                    bookingService.updateBooking(owner.getId(), false, booking.getId());
+                    return;
+                }
+                BookingDecisionResult result = bookingService.decideBookings(owner.getId(),
+                        List.of(new BookingDecisionDto(booking.getId(), false))).get(0);
+                if (result.getError() != null) {
+                    throw new ConflictException(result.getError());
+                }
+            });
+
+            assertEquals(1, succeeded, "booking id=" + booking.getId());
+        }
+    }
+}
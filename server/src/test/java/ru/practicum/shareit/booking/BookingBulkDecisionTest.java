@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@Import(BookingService.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingBulkDecisionTest {
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    TestEntityManager entityManager;
+
+    private Booking persistBooking(Item item, User booker, Status status, int startDay, int endDay) {
+        LocalDateTime now = LocalDateTime.now();
+        return entityManager.persist(Booking.builder().status(status)
+                .startTime(now.plusDays(startDay)).endTime(now.plusDays(endDay))
+                .item(item).user(booker).build());
+    }
+
+    @Test
+    public void givenMixedDecisions_whenDecideBookings_thenPerIdOutcomes() {
+        User owner = entityManager.persist(User.builder().name("owner").email("owner@mail.com").build());
+        User other = entityManager.persist(User.builder().name("other").email("other@mail.com").build());
+        User booker = entityManager.persist(User.builder().name("booker").email("booker@mail.com").build());
+        Item item = entityManager.persist(Item.builder().name("item").description("desc")
+                .available(Boolean.TRUE).user(owner).build());
+        Item foreignItem = entityManager.persist(Item.builder().name("foreign").description("desc")
+                .available(Boolean.TRUE).user(other).build());
+        Booking first = persistBooking(item, booker, Status.WAITING, 1, 3);
+        Booking overlapping = persistBooking(item, booker, Status.WAITING, 2, 4);
+        Booking rejected = persistBooking(item, booker, Status.WAITING, 2, 4);
+        Booking processed = persistBooking(item, booker, Status.APPROVED, 10, 11);
+        Booking foreign = persistBooking(foreignItem, booker, Status.WAITING, 1, 2);
+        entityManager.flush();
+
+        List<BookingDecisionResult> results = bookingService.decideBookings(owner.getId(), List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(overlapping.getId(), true),
+                new BookingDecisionDto(rejected.getId(), false),
+                new BookingDecisionDto(processed.getId(), false),
+                new BookingDecisionDto(foreign.getId(), true)));
+
+        assertEquals(5, results.size());
+        assertEquals(Status.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertNotNull(results.get(1).getError());
+        assertEquals(Status.REJECTED, results.get(2).getStatus());
+        assertEquals("Бронирование уже рассмотрено хозяином вещи!", results.get(3).getError());
+        assertNotNull(results.get(4).getError());
+        assertEquals(Status.APPROVED, bookingRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(Status.WAITING, bookingRepository.findById(overlapping.getId()).orElseThrow().getStatus());
+        assertEquals(Status.WAITING, bookingRepository.findById(foreign.getId()).orElseThrow().getStatus());
+    }
+}
@@ -10,16 +10,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -146,6 +151,22 @@ public class BookingControllerTest {
         assertEquals(response, objectMapper.writeValueAsString(retrievedBookings));
     }
 
+    @Test
+    @SneakyThrows
+    public void getBookingsByBookerId_whenInvokedWithCursor_thenExpectNextCursorHeader() {
+        BookingDto bookingDto = BookingDto.builder().id(7L).status(Status.APPROVED)
+                .start(LocalDateTime.of(2030, 1, 1, 12, 0)).end(LocalDateTime.of(2030, 1, 2, 12, 0)).build();
+        when(bookingService.getBookingsByBookerIdAfter(1L, "ALL", "", 1)).thenReturn(List.of(bookingDto));
+        String nextCursor = mockMvc.perform(get("/bookings?state=ALL&size=1&cursor=")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+        verify(bookingService, atLeast(1)).getBookingsByBookerIdAfter(1L, "ALL", "", 1);
+        assertEquals(BookingCursor.after(bookingDto), BookingCursor.decode(nextCursor));
+    }
+
     @Test
     @SneakyThrows
     public void getBookingsByBookerId_whenInvokedWithInvalidId_thenExpectNotFound() {
@@ -187,4 +208,51 @@ public class BookingControllerTest {
                 .getContentAsString();
         verify(bookingService, atLeast(1)).getBookingsByOwnerId(1L, "ALL", 0, 20);
     }
+
+    @Test
+    @SneakyThrows
+    public void exportBookings_whenInvoked_thenExpectNdjson() {
+        BookingDto first = BookingDto.builder().id(1L).status(Status.APPROVED).build();
+        BookingDto second = BookingDto.builder().id(2L).status(Status.WAITING).build();
+        doAnswer(invocation -> {
+            Consumer<BookingDto> sink = invocation.getArgument(2);
+            sink.accept(first);
+            sink.accept(second);
+            return null;
+        }).when(bookingService).exportBookings(eq(1L), eq("booker"), any());
+        String response = mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertEquals(objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second),
+                response);
+    }
+
+    @Test
+    @SneakyThrows
+    public void exportBookings_whenUnknownUser_thenExpectNotFoundWithErrorResponse() {
+        doThrow(new NotFoundException("Пользователь id=1 не найден!"))
+                .when(bookingService).exportBookings(eq(1L), eq("booker"), any());
+        mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Пользователь id=1 не найден!"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void exportBookings_whenUnknownRole_thenExpectBadRequestWithErrorResponse() {
+        doThrow(new BadRequestException("Unknown role: renter"))
+                .when(bookingService).exportBookings(eq(1L), eq("renter"), any());
+        mockMvc.perform(get("/bookings/export?role=renter")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Unknown role: renter"));
+    }
 }
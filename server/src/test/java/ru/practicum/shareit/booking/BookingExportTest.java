@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(BookingService.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingExportTest {
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    TestEntityManager entityManager;
+
+    User owner;
+
+    User booker;
+
+    @BeforeEach
+    public void setUp() {
+        owner = entityManager.persist(User.builder().name("owner").email("owner@mail.com").build());
+        booker = entityManager.persist(User.builder().name("booker").email("booker@mail.com").build());
+        User other = entityManager.persist(User.builder().name("other").email("other@mail.com").build());
+        Item item = entityManager.persist(Item.builder().name("item").description("desc")
+                .available(Boolean.TRUE).user(owner).build());
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(Booking.builder().status(Status.WAITING)
+                    .startTime(LocalDateTime.now().plusDays(i + 1)).endTime(LocalDateTime.now().plusDays(i + 2))
+                    .item(item).user(i < 3 ? booker : other).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void givenBooker_whenExport_thenOwnBookingsNewestFirst() {
+        List<BookingDto> exported = new ArrayList<>();
+
+        bookingService.exportBookings(booker.getId(), "booker", exported::add);
+
+        assertEquals(3, exported.size());
+        exported.forEach(booking -> assertEquals(booker.getId(), booking.getBooker().getId()));
+        assertTrue(exported.get(0).getStart().isAfter(exported.get(1).getStart()));
+    }
+
+    @Test
+    public void givenOwner_whenExport_thenAllBookingsOfOwnedItems() {
+        List<BookingDto> exported = new ArrayList<>();
+
+        bookingService.exportBookings(owner.getId(), "owner", exported::add);
+
+        assertEquals(5, exported.size());
+    }
+
+    @Test
+    public void givenMoreBookingsThanFetchSize_whenExport_thenPersistenceContextClearedByPortions() {
+        User booker = entityManager.find(User.class, this.booker.getId());
+        Item item = entityManager.persist(Item.builder().name("large").description("desc")
+                .available(Boolean.TRUE).user(entityManager.find(User.class, owner.getId())).build());
+        int count = 2 * BookingRepository.EXPORT_FETCH_SIZE + 1;
+        for (int i = 0; i < count; i++) {
+            entityManager.persist(Booking.builder().status(Status.WAITING)
+                    .startTime(LocalDateTime.now().plusDays(i + 10)).endTime(LocalDateTime.now().plusDays(i + 11))
+                    .item(item).user(booker).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        int[] exported = {0};
+        int[] maxManaged = {0};
+
+        bookingService.exportBookings(owner.getId(), "owner", booking -> {
+            exported[0]++;
+            maxManaged[0] = Math.max(maxManaged[0], session.getStatistics().getEntityCount());
+        });
+
+        assertEquals(count + 5, exported[0]);
+        // Кроме порции бронирований в контексте только вещи и пользователи
+        assertTrue(maxManaged[0] <= BookingRepository.EXPORT_FETCH_SIZE + 5, "managed=" + maxManaged[0]);
+    }
+
+    @Test
+    public void givenUnknownRoleOrUser_whenExport_thenError() {
+        assertThrows(BadRequestException.class, () -> bookingService.exportBookings(booker.getId(), "admin",
+                booking -> { }));
+        assertThrows(NotFoundException.class, () -> bookingService.exportBookings(-1L, "booker",
+                booking -> { }));
+    }
+}
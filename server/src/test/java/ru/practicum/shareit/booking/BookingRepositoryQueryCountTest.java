@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingRepositoryQueryCountTest {
+
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    TestEntityManager entityManager;
+
+    User owner;
+
+    User booker;
+
+    @BeforeEach
+    public void setUp() {
+        owner = entityManager.persist(User.builder().name("owner").email("owner@mail.com").build());
+        booker = entityManager.persist(User.builder().name("booker").email("booker@mail.com").build());
+        for (int i = 0; i < 10; i++) {
+            User requester = entityManager.persist(User.builder().name("requester" + i)
+                    .email("requester" + i + "@mail.com").build());
+            ItemRequest itemRequest = entityManager.persist(ItemRequest.builder().description("request" + i)
+                    .created(LocalDateTime.now()).user(requester).build());
+            Item item = entityManager.persist(Item.builder().name("item" + i).description("desc")
+                    .available(Boolean.TRUE).user(owner).itemRequest(itemRequest).build());
+            entityManager.persist(Booking.builder().status(Status.WAITING)
+                    .startTime(LocalDateTime.now().plusDays(i + 1)).endTime(LocalDateTime.now().plusDays(i + 2))
+                    .item(item).user(booker).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    public void findByItemUserId_whenMapped_thenSingleStatement() {
+        Statistics statistics = statistics();
+        List<BookingDto> bookings = bookingRepository.findByItemUserIdOrderByStartTimeDesc(owner.getId(),
+                        PageRequest.of(0, 10)).stream()
+                .map(BookingMapper::mapBookingEntityToBookingDto)
+                .collect(Collectors.toList());
+        assertEquals(10, bookings.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findByBookerIdAfterCursor_whenMapped_thenSingleStatement() {
+        Statistics statistics = statistics();
+        List<BookingDto> bookings = bookingRepository.findByBookerIdAfterCursor(booker.getId(),
+                        BookingCursor.FIRST.getStartTime(), BookingCursor.FIRST.getBookingId(), PageRequest.of(0, 10)).stream()
+                .map(BookingMapper::mapBookingEntityToBookingDto)
+                .collect(Collectors.toList());
+        assertEquals(10, bookings.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
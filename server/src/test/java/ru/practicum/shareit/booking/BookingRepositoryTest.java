@@ -7,14 +7,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -171,4 +174,83 @@ public class BookingRepositoryTest {
         assertEquals(item, bookings.get(0).getItem());
         assertEquals(owner, bookings.get(0).getItem().getUser());
     }
+
+    @Test
+    public void givenBookingsWithSameStart_whenFindByBookerIdAfterCursor_thenSeekByStartAndId() {
+        User owner = User.builder().name("owner").email("owner@mail.com").build();
+        entityManager.persist(owner);
+        Item item = Item.builder().name("name").description("desc")
+                .available(Boolean.TRUE).user(owner).build();
+        entityManager.persist(item);
+        User booker = User.builder().name("booker").email("booker@mail.com").build();
+        entityManager.persist(booker);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking first = entityManager.persist(Booking.builder().status(Status.WAITING)
+                .startTime(start).endTime(start.plusHours(1)).item(item).user(booker).build());
+        Booking second = entityManager.persist(Booking.builder().status(Status.WAITING)
+                .startTime(start).endTime(start.plusHours(2)).item(item).user(booker).build());
+        Booking third = entityManager.persist(Booking.builder().status(Status.WAITING)
+                .startTime(start.minusHours(1)).endTime(start).item(item).user(booker).build());
+        PageRequest pageOfTwo = PageRequest.of(0, 2);
+
+        List<Booking> firstPage = bookingRepository.findByBookerIdAfterCursor(booker.getId(),
+                BookingCursor.FIRST.getStartTime(), BookingCursor.FIRST.getBookingId(), pageOfTwo);
+        assertEquals(List.of(second, first), firstPage);
+
+        List<Booking> secondPage = bookingRepository.findByBookerIdAfterCursor(booker.getId(),
+                first.getStartTime(), first.getId(), pageOfTwo);
+        assertEquals(List.of(third), secondPage);
+
+        // Владелец копируется из вещи при сохранении бронирования
+        assertEquals(owner.getId(), first.getOwnerId());
+        List<Booking> ownerPage = bookingRepository.findByOwnerIdAfterCursor(owner.getId(),
+                second.getStartTime(), second.getId(), pageOfTwo);
+        assertEquals(List.of(first, third), ownerPage);
+    }
+
+    @Test
+    public void givenApprovedBookings_whenFindLatestStartingBefore_thenOnlyCandidateReturned() {
+        User user = entityManager.persist(User.builder().name("username").email("email@mail.com").build());
+        Item item = entityManager.persist(Item.builder().name("name").description("desc")
+                .available(Boolean.TRUE).user(user).build());
+        // H2 хранит время с точностью до микросекунд, граница сравнения должна совпадать с сохранённой
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        entityManager.persist(Booking.builder().status(Status.APPROVED).startTime(now.plusHours(1))
+                .endTime(now.plusHours(2)).item(item).user(user).build());
+        Booking latest = entityManager.persist(Booking.builder().status(Status.APPROVED)
+                .startTime(now.plusHours(3)).endTime(now.plusHours(4)).item(item).user(user).build());
+        entityManager.persist(Booking.builder().status(Status.WAITING).startTime(now.plusHours(5))
+                .endTime(now.plusHours(6)).item(item).user(user).build());
+
+        Optional<Booking> candidate = bookingRepository
+                .findFirstByItemIdAndStatusAndStartTimeBeforeOrderByStartTimeDesc(item.getId(), Status.APPROVED,
+                        now.plusHours(7));
+
+        assertThat(candidate).contains(latest);
+        assertThat(bookingRepository.findFirstByItemIdAndStatusAndStartTimeBeforeOrderByStartTimeDesc(item.getId(),
+                Status.APPROVED, now.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    public void givenBookingsOfSeveralItems_whenFindApprovedOverlapping_thenOnlyApprovedInWindowReturned() {
+        User user = entityManager.persist(User.builder().name("username").email("email@mail.com").build());
+        Item tent = entityManager.persist(Item.builder().name("tent").description("desc")
+                .available(Boolean.TRUE).user(user).build());
+        Item stove = entityManager.persist(Item.builder().name("stove").description("desc")
+                .available(Boolean.TRUE).user(user).build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking tentApproved = entityManager.persist(Booking.builder().status(Status.APPROVED)
+                .startTime(now.plusHours(1)).endTime(now.plusHours(3)).item(tent).user(user).build());
+        Booking stoveApproved = entityManager.persist(Booking.builder().status(Status.APPROVED)
+                .startTime(now.plusHours(4)).endTime(now.plusHours(6)).item(stove).user(user).build());
+        entityManager.persist(Booking.builder().status(Status.WAITING).startTime(now.plusHours(2))
+                .endTime(now.plusHours(4)).item(tent).user(user).build());
+        entityManager.persist(Booking.builder().status(Status.APPROVED).startTime(now.plusHours(6))
+                .endTime(now.plusHours(8)).item(stove).user(user).build());
+
+        List<Booking> approved = bookingRepository.findApprovedOverlapping(List.of(tent.getId(), stove.getId()),
+                now.plusHours(2), now.plusHours(6));
+
+        assertEquals(Set.of(tentApproved, stoveApproved), Set.copyOf(approved));
+    }
 }
@@ -11,10 +11,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -24,6 +26,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -73,6 +76,74 @@ public class BookingServiceTest {
         assertEquals(2, retrievedBooking.getItem().getId());
     }
 
+    @Test
+    public void addBookings_givenSeveralItems_expectAllSavedTogether() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        when(userRepository.findById(3L)).thenReturn(Optional.of(booker));
+        Item tent = Item.builder().id(2L).name("tent").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        Item stove = Item.builder().id(4L).name("stove").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        when(itemRepository.findByIdIn(Set.of(2L, 4L))).thenReturn(List.of(tent, stove));
+        when(bookingRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        List<BookingDto> bookingDtos = List.of(
+                BookingDto.builder().itemId(2L).start(start).end(start.plusDays(2)).build(),
+                BookingDto.builder().itemId(4L).start(start).end(start.plusDays(2)).build());
+
+        List<BookingDto> bookings = bookingService.addBookings(3L, bookingDtos);
+
+        assertEquals(2, bookings.size());
+        assertEquals(Status.WAITING, bookings.get(0).getStatus());
+        assertEquals(4L, bookings.get(1).getItem().getId());
+        Mockito.verify(itemRepository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    public void addBookings_givenOverlapWithinBatch_thenBadRequestAndNothingSaved() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        when(userRepository.findById(3L)).thenReturn(Optional.of(booker));
+        Item tent = Item.builder().id(2L).name("tent").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        when(itemRepository.findByIdIn(Set.of(2L))).thenReturn(List.of(tent));
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        List<BookingDto> bookingDtos = List.of(
+                BookingDto.builder().itemId(2L).start(start).end(start.plusDays(2)).build(),
+                BookingDto.builder().itemId(2L).start(start.plusDays(1)).end(start.plusDays(3)).build());
+
+        assertThrows(BadRequestException.class, () -> bookingService.addBookings(3L, bookingDtos));
+        Mockito.verify(bookingRepository, Mockito.never()).saveAll(any());
+    }
+
+    @Test
+    public void addBookings_givenApprovedOverlap_thenOneQueryForBatchAndBadRequest() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        when(userRepository.findById(3L)).thenReturn(Optional.of(booker));
+        Item tent = Item.builder().id(2L).name("tent").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        Item stove = Item.builder().id(4L).name("stove").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        when(itemRepository.findByIdIn(Set.of(2L, 4L))).thenReturn(List.of(tent, stove));
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        Booking approved = Booking.builder().id(7L).status(Status.APPROVED).startTime(start.plusDays(5))
+                .endTime(start.plusDays(6)).item(stove).user(owner).build();
+        when(bookingRepository.findApprovedOverlapping(Set.of(2L, 4L), start, start.plusDays(6)))
+                .thenReturn(List.of(approved));
+        List<BookingDto> bookingDtos = List.of(
+                BookingDto.builder().itemId(2L).start(start.plusDays(5)).end(start.plusDays(6)).build(),
+                BookingDto.builder().itemId(4L).start(start).end(start.plusDays(1)).build(),
+                BookingDto.builder().itemId(4L).start(start.plusDays(4)).end(start.plusDays(6)).build());
+
+        assertThrows(BadRequestException.class, () -> bookingService.addBookings(3L, bookingDtos));
+        Mockito.verify(bookingRepository).findApprovedOverlapping(Set.of(2L, 4L), start, start.plusDays(6));
+        Mockito.verify(bookingRepository, Mockito.never())
+                .findFirstByItemIdAndStatusAndStartTimeBeforeOrderByStartTimeDesc(any(), any(), any());
+        Mockito.verify(bookingRepository, Mockito.never()).saveAll(any());
+    }
+
     @Test
     public void addBooking_givenUnavailableItem_thenExpectBadRequest() {
         Optional<User> owner = Optional.of(User.builder().id(1L).name("owner")
@@ -144,10 +215,7 @@ public class BookingServiceTest {
                 .endTime(LocalDateTime.now().plusHours(2)).item(item)
                 .user(booker).build();
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
-        Booking updateBooking = Booking.builder().id(1L).startTime(LocalDateTime.now().plusHours(1))
-                .status(Status.APPROVED).endTime(LocalDateTime.now().plusHours(2)).item(item)
-                .user(booker).build();
-        when(bookingRepository.save(Mockito.any(Booking.class))).thenReturn(updateBooking);
+        when(bookingRepository.updateStatusIfWaiting(1L, Status.APPROVED)).thenReturn(1);
 
         BookingDto retrievedBooking = bookingService.updateBooking(1L, true, 1L);
 
@@ -159,7 +227,28 @@ public class BookingServiceTest {
     }
 
     @Test
-    public void updateBooking_givenStatusRejected_expectSuccess() {
+    public void updateBooking_givenOverlappingApprovedBooking_thenBadRequest() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        Item item = Item.builder().id(2L).name("item").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        Booking booking = Booking.builder().id(1L).startTime(start).endTime(start.plusHours(2))
+                .status(Status.WAITING).item(item).user(booker).build();
+        Booking approved = Booking.builder().id(4L).startTime(start.minusHours(1)).endTime(start.plusHours(1))
+                .status(Status.APPROVED).item(item).user(booker).build();
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartTimeBeforeOrderByStartTimeDesc(2L,
+                Status.APPROVED, booking.getEndTime())).thenReturn(Optional.of(approved));
+
+        assertThrows(BadRequestException.class, () -> bookingService.updateBooking(1L, true, 1L));
+        Mockito.verify(itemRepository).findByIdForUpdate(2L);
+        Mockito.verify(bookingRepository, Mockito.never()).updateStatusIfWaiting(anyLong(), any(Status.class));
+    }
+
+    @Test
+    public void updateBooking_givenConcurrentlyProcessed_thenConflict() {
         User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
         User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
         when(userRepository.existsById(anyLong())).thenReturn(true);
@@ -169,11 +258,24 @@ public class BookingServiceTest {
                 .startTime(LocalDateTime.now().plusHours(1)).status(Status.WAITING)
                 .endTime(LocalDateTime.now().plusHours(2)).item(item)
                 .user(booker).build();
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
-        Booking updateBooking = Booking.builder().id(1L).startTime(LocalDateTime.now().plusHours(1))
-                .status(Status.REJECTED).endTime(LocalDateTime.now().plusHours(2)).item(item)
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(1L, Status.APPROVED)).thenReturn(0);
+
+        assertThrows(ConflictException.class, () -> bookingService.updateBooking(1L, true, 1L));
+    }
+
+    @Test
+    public void updateBooking_givenStatusRejected_expectSuccess() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        Item item = Item.builder().id(2L).name("item").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        Booking rejected = Booking.builder().id(1L)
+                .startTime(LocalDateTime.now().plusHours(1)).status(Status.REJECTED)
+                .endTime(LocalDateTime.now().plusHours(2)).item(item)
                 .user(booker).build();
-        when(bookingRepository.save(any(Booking.class))).thenReturn(updateBooking);
+        when(bookingRepository.updateStatusIfWaitingForOwner(List.of(1L), 1L, Status.REJECTED)).thenReturn(1);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(rejected));
 
         BookingDto retrievedBooking = bookingService.updateBooking(1L, false, 1L);
 
@@ -182,6 +284,42 @@ public class BookingServiceTest {
         assertEquals(Status.REJECTED, retrievedBooking.getStatus());
         assertEquals(3, retrievedBooking.getBooker().getId());
         assertEquals(2, retrievedBooking.getItem().getId());
+        Mockito.verify(userRepository, Mockito.never()).existsById(anyLong());
+        Mockito.verify(itemRepository, Mockito.never()).findByIdForUpdate(anyLong());
+    }
+
+    @Test
+    public void updateBooking_givenRejectionByNotOwner_expectNotFound() {
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        User owner = User.builder().id(4L).name("owner").email("owner@mail.ru").build();
+        Item item = Item.builder().id(2L).name("item").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        Booking booking = Booking.builder().id(1L)
+                .startTime(LocalDateTime.now().plusHours(1)).status(Status.WAITING)
+                .endTime(LocalDateTime.now().plusHours(2)).item(item)
+                .user(booker).build();
+        when(bookingRepository.updateStatusIfWaitingForOwner(List.of(1L), 1L, Status.REJECTED)).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+
+        assertThrows(NotFoundException.class, () -> bookingService.updateBooking(1L, false, 1L));
+    }
+
+    @Test
+    public void updateBooking_givenRejectionOfDecidedBooking_expectBadRequest() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        Item item = Item.builder().id(2L).name("item").description("desc").available(Boolean.TRUE)
+                .user(owner).build();
+        Booking booking = Booking.builder().id(1L)
+                .startTime(LocalDateTime.now().plusHours(1)).status(Status.APPROVED)
+                .endTime(LocalDateTime.now().plusHours(2)).item(item)
+                .user(booker).build();
+        when(bookingRepository.updateStatusIfWaitingForOwner(List.of(1L), 1L, Status.REJECTED)).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+
+        assertThrows(BadRequestException.class, () -> bookingService.updateBooking(1L, false, 1L));
     }
 
     @Test
@@ -405,4 +543,31 @@ public class BookingServiceTest {
         assertThrows(NotFoundException.class,
                 () -> bookingService.getBookingsByOwnerId(1L, "ALL", 0, 20));
     }
+
+    @Test
+    public void getBookingsByBookerIdAfter_givenCursor_expectSeekFromCursor() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        Item item = Item.builder().id(2L).name("item").description("desc").available(Boolean.TRUE).user(owner).build();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        List<Booking> bookings = List.of(Booking.builder().id(4L).startTime(start.minusDays(1))
+                .endTime(start).status(Status.WAITING).item(item).user(booker).build());
+        String cursor = new BookingCursor(start, 5L).encode();
+        when(userRepository.existsById(3L)).thenReturn(true);
+        when(bookingRepository.findByBookerIdAndStatusAfterCursor(3L, Status.WAITING, start, 5L,
+                PageRequest.of(0, 10))).thenReturn(bookings);
+
+        List<BookingDto> bookingDtoList = bookingService.getBookingsByBookerIdAfter(3L, "WAITING", cursor, 10);
+
+        assertEquals(1, bookingDtoList.size());
+        assertEquals(4, bookingDtoList.get(0).getId());
+    }
+
+    @Test
+    public void getBookingsByOwnerIdAfter_givenMalformedCursor_expectBadRequest() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getBookingsByOwnerIdAfter(1L, "ALL", "not-a-cursor", 10));
+    }
 }
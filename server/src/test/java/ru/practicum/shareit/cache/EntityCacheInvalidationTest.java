@@ -0,0 +1,114 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({EntityCacheInvalidationListener.class, InJvmCacheInvalidationBus.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EntityCacheInvalidationTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void givenCachedUser_whenInvalidationFromOtherNode_thenEvicted() {
+        User user = userRepository.save(User.builder().name("name").email("name@mail.com").build());
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(User.class, user.getId()));
+
+        cacheInvalidationBus.publish(CacheInvalidation.entity("other-node", User.class.getName(), user.getId()));
+
+        assertFalse(cache.contains(User.class, user.getId()));
+    }
+
+    @Test
+    public void givenCachedUser_whenUpdated_thenInvalidationPublished() {
+        List<CacheInvalidation> published = new CopyOnWriteArrayList<>();
+        cacheInvalidationBus.subscribe(published::add);
+        User user = userRepository.save(User.builder().name("name").email("update@mail.com").build());
+
+        user.setName("newName");
+        userRepository.save(user);
+
+        assertTrue(published.stream().anyMatch(invalidation ->
+                User.class.getName().equals(invalidation.getEntityName())
+                        && user.getId().equals(invalidation.getId())));
+    }
+
+    @Test
+    public void givenUser_whenDeleted_thenInvalidationPublished() {
+        List<CacheInvalidation> published = new CopyOnWriteArrayList<>();
+        cacheInvalidationBus.subscribe(published::add);
+        User user = userRepository.save(User.builder().name("name").email("delete@mail.com").build());
+
+        userRepository.deleteById(user.getId());
+
+        assertTrue(published.stream().anyMatch(invalidation ->
+                User.class.getName().equals(invalidation.getEntityName())
+                        && user.getId().equals(invalidation.getId())));
+    }
+
+    @Test
+    public void givenCachedItems_whenOwnerDeleted_thenItemRegionEvicted() {
+        // Владелец и вещь сохраняются в одной транзакции: Item каскадно сохраняет User
+        Item item = transactionTemplate.execute(status -> {
+            User owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+            return itemRepository.save(Item.builder().name("item").description("desc")
+                    .available(Boolean.TRUE).user(owner).build());
+        });
+        User owner = item.getUser();
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(Item.class, item.getId()));
+
+        userRepository.deleteById(owner.getId());
+
+        assertFalse(cache.contains(Item.class, item.getId()));
+    }
+
+    @Test
+    public void givenPayload_whenParsed_thenRoundTrip() {
+        CacheInvalidation invalidation = CacheInvalidation.region("node", Item.class.getName());
+        assertEquals(invalidation, CacheInvalidation.fromPayload(invalidation.toPayload()));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static ru.practicum.shareit.config.CacheConfig.USERS_CACHE;
+import static ru.practicum.shareit.config.CacheConfig.USER_EXISTS_CACHE;
+
+// Два узла со своими кэшами и своими экземплярами InJvmCacheInvalidationBus: шина в JVM общая, как канал кластера
+public class UserCacheInvalidationListenerTest {
+
+    private static final String SPEC = "maximumSize=100,expireAfterWrite=10m";
+
+    private CacheManager firstNode;
+
+    private CacheManager secondNode;
+
+    private CacheInvalidationBus secondNodeBus;
+
+    @BeforeEach
+    public void setUp() {
+        firstNode = startNode(new InJvmCacheInvalidationBus());
+        secondNodeBus = new InJvmCacheInvalidationBus();
+        secondNode = startNode(secondNodeBus);
+    }
+
+    private static CacheManager startNode(CacheInvalidationBus bus) {
+        CacheManager cacheManager = new CacheConfig().cacheManager(SPEC);
+        new UserCacheInvalidationListener(cacheManager, bus).register();
+        return cacheManager;
+    }
+
+    private static void cacheUser(CacheManager cacheManager, long id) {
+        cacheManager.getCache(USERS_CACHE).put(id, UserDto.builder().id(id).name("name").build());
+        cacheManager.getCache(USER_EXISTS_CACHE).put(id, true);
+    }
+
+    @Test
+    public void givenUserCachedOnBothNodes_whenOtherNodePublishesUser_thenEvictedOnBoth() {
+        cacheUser(firstNode, 1L);
+        cacheUser(firstNode, 2L);
+        cacheUser(secondNode, 1L);
+
+        secondNodeBus.publish(CacheInvalidation.entity("second-node", User.class.getName(), 1L));
+
+        assertNull(firstNode.getCache(USERS_CACHE).get(1L));
+        assertNull(firstNode.getCache(USER_EXISTS_CACHE).get(1L));
+        assertNull(secondNode.getCache(USERS_CACHE).get(1L));
+        assertNotNull(firstNode.getCache(USERS_CACHE).get(2L));
+        assertNotNull(firstNode.getCache(USER_EXISTS_CACHE).get(2L));
+    }
+
+    @Test
+    public void givenCachedUser_whenOtherEntityPublished_thenKept() {
+        cacheUser(firstNode, 1L);
+
+        secondNodeBus.publish(CacheInvalidation.entity("second-node", Item.class.getName(), 1L));
+
+        assertNotNull(firstNode.getCache(USERS_CACHE).get(1L));
+        assertNotNull(firstNode.getCache(USER_EXISTS_CACHE).get(1L));
+    }
+
+    @Test
+    public void givenCachedUsers_whenAllInvalidated_thenCleared() {
+        cacheUser(firstNode, 1L);
+        cacheUser(firstNode, 2L);
+
+        secondNodeBus.publish(CacheInvalidation.all("second-node"));
+
+        assertNull(firstNode.getCache(USERS_CACHE).get(1L));
+        assertNull(firstNode.getCache(USER_EXISTS_CACHE).get(2L));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdmissionControlFilter filter =
+            new AdmissionControlFilter(1, 1, Duration.ZERO, new ObjectMapper(), new StaticListableBeanFactory(
+                    Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class));
+
+    @Test
+    public void givenNoFreePermits_whenRequest_thenServiceUnavailable() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), outer,
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/users"), inner,
+                        (innerRequest, innerResponse) -> { }));
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, inner.getStatus());
+        assertEquals("1", inner.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.counter("server.admission.rejected").count());
+    }
+
+    @Test
+    public void givenNoFreePermits_whenActuatorRequest_thenAdmitted() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"),
+                        inner, (innerRequest, innerResponse) -> { }));
+
+        assertEquals(200, inner.getStatus());
+    }
+
+    @Test
+    public void givenRunningExport_whenRegularRequest_thenAdmitted() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/bookings/export"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/items"),
+                        inner, (innerRequest, innerResponse) -> { }));
+
+        assertEquals(200, inner.getStatus());
+    }
+
+    @Test
+    public void givenRunningExport_whenImport_thenServiceUnavailable() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/bookings/export"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("POST", "/items/bulk"),
+                        inner, (innerRequest, innerResponse) -> { }));
+
+        assertEquals(503, inner.getStatus());
+        assertEquals(1, meterRegistry.counter("server.admission.streaming.rejected").count());
+        assertEquals(0, meterRegistry.counter("server.admission.rejected").count());
+    }
+
+    @Test
+    public void givenPermitReleased_whenNextRequest_thenAdmitted() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), first, (request, response) -> { });
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), second, (request, response) -> { });
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InMemoryItemSearchEngineTest {
+
+    final PageRequest pageRequest = PageRequest.of(0, 20);
+    @Mock
+    ItemRepository itemRepository;
+    InMemoryItemSearchEngine searchEngine;
+    Map<Long, Item> items;
+
+    @BeforeEach
+    public void setUp() {
+        items = List.of(
+                Item.builder().id(1L).name("Дрель").description("Дрель с ударным режимом").available(true).build(),
+                Item.builder().id(2L).name("Отвертка").description("Аккумуляторная, для дрели не подходит")
+                        .available(true).build(),
+                Item.builder().id(3L).name("Дрель старая").description("Сломана").available(false).build()
+        ).stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+        when(itemRepository.findAll()).thenReturn(List.copyOf(items.values()));
+        lenient().when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(items::get).collect(Collectors.toList());
+        });
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+        searchEngine.rebuild();
+    }
+
+    @Test
+    public void search_givenText_expectAvailableItemsRankedByNameMatch() {
+        List<Item> found = searchEngine.search("дРЕл", pageRequest);
+
+        assertEquals(2, found.size());
+        assertEquals(1L, found.get(0).getId());
+        assertEquals(2L, found.get(1).getId());
+    }
+
+    @Test
+    public void search_givenPageRequest_expectPageOfRankedItems() {
+        List<Item> found = searchEngine.search("дрел", PageRequest.of(1, 1));
+
+        assertEquals(1, found.size());
+        assertEquals(2L, found.get(0).getId());
+    }
+
+    @Test
+    public void search_givenSeveralWords_expectItemsMatchingAllWords() {
+        List<Item> found = searchEngine.search("дрель ударным", pageRequest);
+
+        assertEquals(1, found.size());
+        assertEquals(1L, found.get(0).getId());
+    }
+
+    @Test
+    public void index_givenUpdatedItem_expectIndexReflectsChanges() {
+        Item updated = Item.builder().id(1L).name("Перфоратор").description("Мощный").available(true).build();
+        items.put(1L, updated);
+
+        searchEngine.index(updated);
+
+        assertEquals(List.of(updated), searchEngine.search("перфоратор", pageRequest));
+        assertEquals(2L, searchEngine.search("дрел", pageRequest).get(0).getId());
+        assertTrue(searchEngine.search("ударным", pageRequest).isEmpty());
+    }
+
+    @Test
+    public void search_givenPartOfWord_expectMatchedByNgrams() {
+        Item item = Item.builder().id(4L).name("abcxbcd").description("desc").available(true).build();
+        items.put(4L, item);
+        searchEngine.index(item);
+
+        assertEquals(List.of(1L), searchEngine.search("ударн", pageRequest).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(item), searchEngine.search("xbcd", pageRequest));
+        // Все n-граммы запроса есть в слове, но не подряд
+        assertTrue(searchEngine.search("abcd", pageRequest).isEmpty());
+    }
+
+    @Test
+    public void index_givenActiveTransaction_expectAppliedAfterCommit() {
+        Item updated = Item.builder().id(1L).name("Перфоратор").description("Мощный").available(true).build();
+        items.put(1L, updated);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.index(updated);
+
+            assertTrue(searchEngine.search("перфоратор", pageRequest).isEmpty());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(updated), searchEngine.search("перфоратор", pageRequest));
+    }
+
+    @Test
+    public void removeByOwner_givenOwnedItems_expectRemovedFromIndex() {
+        User owner = User.builder().id(5L).name("owner").email("owner@mail.com").build();
+        Item owned = Item.builder().id(4L).name("Дрель новая").description("desc").available(true).user(owner)
+                .build();
+        items.put(4L, owned);
+        searchEngine.index(owned);
+
+        searchEngine.removeByOwner(5L);
+
+        assertEquals(List.of(1L, 2L), searchEngine.search("дрел", pageRequest).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void search_givenBlankText_expectEmptyList() {
+        assertTrue(searchEngine.search("  ", pageRequest).isEmpty());
+    }
+}
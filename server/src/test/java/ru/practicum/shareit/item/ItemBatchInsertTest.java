@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemBatchInsertTest {
+
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    public void givenManyItems_whenSaveAll_thenInsertedInBatches() {
+        User owner = entityManager.persistAndFlush(User.builder().name("owner").email("owner@mail.com").build());
+        List<Item> items = IntStream.range(0, 120)
+                .mapToObj(i -> Item.builder().name("item" + i).description("desc")
+                        .available(Boolean.TRUE).user(owner).build())
+                .collect(Collectors.toList());
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        itemRepository.saveAll(items);
+        entityManager.flush();
+
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -10,18 +10,26 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoUpdate;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -34,6 +42,9 @@ public class ItemControllerTest {
     @MockBean
     ItemService itemService;
 
+    @MockBean
+    ItemImportService itemImportService;
+
     @Autowired
     ObjectMapper objectMapper;
 
@@ -133,7 +144,7 @@ public class ItemControllerTest {
     public void getItemById_whenInvokedWithValidItemId_thenExpectOk() {
         ItemDto item = ItemDto.builder().id(3L).name("name")
                 .description("desc").available(Boolean.TRUE).build();
-        when(itemService.getItemById(Mockito.anyLong(), Mockito.anyLong())).thenReturn(item);
+        when(itemService.getItemById(Mockito.anyLong(), Mockito.anyLong(), any())).thenReturn(item);
         String response = mockMvc.perform(get("/items/3")
                         .header("X-Sharer-User-Id", 1L)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -141,14 +152,33 @@ public class ItemControllerTest {
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
-        verify(itemService, atLeast(1)).getItemById(Mockito.anyLong(), Mockito.anyLong());
+        verify(itemService, atLeast(1)).getItemById(Mockito.anyLong(), Mockito.anyLong(), any());
         assertEquals(response, objectMapper.writeValueAsString(item));
     }
 
+    @Test
+    @SneakyThrows
+    public void getItemById_whenETagMatches_thenNotModifiedWithoutBody() {
+        when(itemService.getItemById(eq(3L), eq(1L), any())).thenAnswer(invocation -> {
+            Predicate<String> notModified = invocation.getArgument(2);
+            return notModified.test("item-3-0-0-0-0") ? null : ItemDto.builder().id(3L).build();
+        });
+        String response = mockMvc.perform(get("/items/3")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-3-0-0-0-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"item-3-0-0-0-0\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        verify(itemService, times(1)).getItemById(eq(3L), eq(1L), any());
+        assertEquals("", response);
+    }
+
     @Test
     @SneakyThrows
     public void getItemById_whenInvokedWithInvalidItemId_thenExpectNotFound() {
-        when(itemService.getItemById(Mockito.anyLong(), Mockito.anyLong())).thenThrow(NotFoundException.class);
+        when(itemService.getItemById(Mockito.anyLong(), Mockito.anyLong(), any())).thenThrow(NotFoundException.class);
         mockMvc.perform(get("/items/3")
                         .header("X-Sharer-User-Id", 1L)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -156,7 +186,7 @@ public class ItemControllerTest {
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
-        verify(itemService, atLeast(1)).getItemById(Mockito.anyLong(), Mockito.anyLong());
+        verify(itemService, atLeast(1)).getItemById(Mockito.anyLong(), Mockito.anyLong(), any());
     }
 
     @Test
@@ -205,4 +235,57 @@ public class ItemControllerTest {
         verify(itemService, atLeast(1)).findByNameOrDescription(anyString(), anyInt(), anyInt());
         assertEquals(response, objectMapper.writeValueAsString(items));
     }
+
+    @Test
+    @SneakyThrows
+    public void importItems_whenInvoked_thenExpectNdjson() {
+        ItemImportResult created = ItemImportResult.created(0, 3L);
+        ItemImportResult failed = ItemImportResult.failed(1, "name must not be blank");
+        doAnswer(invocation -> {
+            Consumer<ItemImportResult> sink = invocation.getArgument(2);
+            sink.accept(failed);
+            sink.accept(created);
+            return null;
+        }).when(itemImportService).importItems(eq(1L), any(), any());
+        String response = mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertEquals(objectMapper.writeValueAsString(failed) + "\n" + objectMapper.writeValueAsString(created),
+                response);
+    }
+
+    @Test
+    @SneakyThrows
+    public void importItems_whenUnknownUser_thenExpectNotFoundWithErrorResponse() {
+        doThrow(new NotFoundException("Пользователь id=1 не найден"))
+                .when(itemImportService).importItems(eq(1L), any(), any());
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                        .content("{}\n"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Пользователь id=1 не найден"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void importItems_whenMalformedFirstLine_thenExpectBadRequestWithErrorResponse() {
+        doThrow(new BadRequestException("Некорректный JSON: Unexpected character"))
+                .when(itemImportService).importItems(eq(1L), any(), any());
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{oops\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Некорректный JSON: Unexpected character"));
+    }
 }
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "shareit.items.import.batch-size=2")
+@Import({ItemImportService.class, DatabaseItemSearchEngine.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemImportServiceTest {
+
+    @Autowired
+    ItemImportService itemImportService;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    @AfterEach
+    public void tearDown() {
+        // Пачки импорта фиксируются собственными транзакциями, откатывать нечего
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    private List<ItemImportResult> importItems(long userId, String body) throws Exception {
+        List<ItemImportResult> results = new ArrayList<>();
+        itemImportService.importItems(userId, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                results::add);
+        return results;
+    }
+
+    @Test
+    public void givenNdjson_whenImport_thenValidRecordsSavedAndErrorsReported() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+        String body = "{\"name\":\"drill\",\"description\":\"desc\",\"available\":true}\n" +
+                "{\"name\":\" \",\"description\":\"desc\",\"available\":true}\n" +
+                "{\"name\":\"saw\",\"description\":\"desc\",\"available\":false}\n" +
+                "{\"name\":\"hammer\",\"description\":\"desc\",\"available\":true,\"requestId\":-1}\n" +
+                "{\"name\":\"axe\",\"description\":\"desc\",\"available\":\"maybe\"}\n" +
+                "{\"name\":\"ladder\",\"description\":\"desc\",\"available\":true}\n";
+
+        List<ItemImportResult> results = importItems(owner.getId(), body);
+
+        // Ошибки разбора и валидации выдаются сразу, сохранённые записи - после фиксации своей пачки из двух
+        assertEquals(List.of(1, 0, 2, 4, 3, 5), results.stream()
+                .map(ItemImportResult::getIndex)
+                .collect(Collectors.toList()));
+        assertNotNull(results.get(0).getError());
+        assertNotNull(results.get(1).getId());
+        assertNotNull(results.get(2).getId());
+        assertNotNull(results.get(3).getError());
+        assertEquals("Запрос id=-1 не найден", results.get(4).getError());
+        assertNotNull(results.get(5).getId());
+        assertNull(results.get(5).getError());
+        assertEquals(3, itemRepository.findByUserIdOrderByIdAsc(owner.getId(), PageRequest.of(0, 20)).size());
+    }
+
+    @Test
+    public void givenJsonArray_whenImport_thenAllSaved() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+        String body = "[{\"name\":\"drill\",\"description\":\"desc\",\"available\":true}," +
+                "{\"name\":\"saw\",\"description\":\"desc\",\"available\":true}," +
+                "{\"name\":\"axe\",\"description\":\"desc\",\"available\":true}]";
+
+        List<ItemImportResult> results = importItems(owner.getId(), body);
+
+        assertEquals(3, results.size());
+        results.forEach(result -> assertNotNull(result.getId()));
+    }
+
+    @Test
+    public void givenBatchRejectedByDatabase_whenImport_thenEveryRecordOfBatchFailedAndImportStopped()
+            throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+        // Описание проходит валидацию DTO, но не помещается в столбец varchar(255)
+        String tooLong = "d".repeat(300);
+        String body = "{\"name\":\"drill\",\"description\":\"desc\",\"available\":true}\n" +
+                "{\"name\":\"saw\",\"description\":\"desc\",\"available\":true}\n" +
+                "{\"name\":\"hammer\",\"description\":\"" + tooLong + "\",\"available\":true}\n" +
+                "{\"name\":\"axe\",\"description\":\"desc\",\"available\":true,\"requestId\":-1}\n" +
+                "{\"name\":\"ladder\",\"description\":\"desc\",\"available\":true}\n";
+
+        List<ItemImportResult> results = importItems(owner.getId(), body);
+
+        assertEquals(List.of(0, 1, 2, 3), results.stream()
+                .map(ItemImportResult::getIndex)
+                .collect(Collectors.toList()));
+        assertNotNull(results.get(0).getId());
+        assertNotNull(results.get(1).getId());
+        assertEquals("Пачка не сохранена, импорт остановлен", results.get(2).getError());
+        assertEquals("Пачка не сохранена, импорт остановлен", results.get(3).getError());
+        assertEquals(2, itemRepository.findByUserIdOrderByIdAsc(owner.getId(), PageRequest.of(0, 20)).size());
+    }
+
+    @Test
+    public void givenMalformedFirstLine_whenImport_thenBadRequestAndNothingReported() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+        List<ItemImportResult> results = new ArrayList<>();
+
+        assertThrows(BadRequestException.class, () -> itemImportService.importItems(owner.getId(),
+                new ByteArrayInputStream("{\"name\": oops}\n".getBytes(StandardCharsets.UTF_8)), results::add));
+        assertThrows(BadRequestException.class, () -> itemImportService.importItems(owner.getId(),
+                new ByteArrayInputStream("oops\n".getBytes(StandardCharsets.UTF_8)), results::add));
+        assertEquals(List.of(), results);
+    }
+
+    @Test
+    public void givenUnknownUser_whenImport_thenNotFound() {
+        assertThrows(NotFoundException.class, () -> importItems(-1L, "[]"));
+    }
+}
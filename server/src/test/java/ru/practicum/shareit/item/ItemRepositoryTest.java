@@ -7,15 +7,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.VersionSummary;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @DataJpaTest
@@ -87,7 +91,7 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    public void givenItems_whenFindByNameOrDesc_thenSuccess() {
+    public void givenItems_whenSearchAvailableInAnyCase_thenNameOrDescriptionMatched() {
         User user = User.builder().name("username").email("email@mail.com").build();
         entityManager.persist(user);
         Item item1 = Item.builder().name("hammer").description("desc")
@@ -97,14 +101,54 @@ public class ItemRepositoryTest {
         entityManager.persist(item1);
         entityManager.persist(item2);
         List<Item> items1 = itemRepository
-                .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase("hAmM", "hAmM", pageRequest);
+                .searchAvailable("%hAmM%", pageRequest);
         assertNotNull(items1);
         assertEquals(1, items1.size());
         assertEquals(item1, items1.get(0));
         List<Item> items2 = itemRepository
-                .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase("WEld", "WEld", pageRequest);
+                .searchAvailable("%WEld%", pageRequest);
         assertNotNull(items2);
         assertEquals(1, items2.size());
         assertEquals(item2, items2.get(0));
     }
+
+    @Test
+    public void givenItems_whenSearchAvailable_thenOnlyAvailableRankedByName() {
+        User user = User.builder().name("username").email("email@mail.com").build();
+        entityManager.persist(user);
+        Item byDescription = Item.builder().name("tool").description("big hammer")
+                .available(Boolean.TRUE).user(user).build();
+        Item byName = Item.builder().name("Hammer").description("desc")
+                .available(Boolean.TRUE).user(user).build();
+        Item unavailable = Item.builder().name("hammer drill").description("desc")
+                .available(Boolean.FALSE).user(user).build();
+        entityManager.persist(byDescription);
+        entityManager.persist(byName);
+        entityManager.persist(unavailable);
+        List<Item> items = itemRepository.searchAvailable("%hAmM%", pageRequest);
+        assertNotNull(items);
+        assertEquals(2, items.size());
+        assertEquals(byName, items.get(0));
+        assertEquals(byDescription, items.get(1));
+        assertEquals(0, itemRepository.searchAvailable("%\\%%", pageRequest).size());
+    }
+
+    @Test
+    public void givenRequestItems_whenItemUpdated_thenSummaryChanges() {
+        User user = entityManager.persist(User.builder().name("username").email("email@mail.com").build());
+        ItemRequest itemRequest = entityManager.persist(ItemRequest.builder().description("request")
+                .created(LocalDateTime.now()).user(user).build());
+        Item item = entityManager.persist(Item.builder().name("name").description("desc")
+                .available(Boolean.TRUE).user(user).itemRequest(itemRequest).build());
+        entityManager.flush();
+        VersionSummary before = itemRepository.summarizeByItemRequestId(itemRequest.getId());
+
+        item.setName("NewName");
+        entityManager.flush();
+        VersionSummary after = itemRepository.summarizeByItemRequestId(itemRequest.getId());
+
+        assertEquals(1L, before.getCount());
+        assertEquals(item.getId(), before.getMaxId());
+        assertNotEquals(before.toTag(), after.toTag());
+    }
 }
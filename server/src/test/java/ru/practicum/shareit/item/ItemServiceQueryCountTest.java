@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ItemService.class, DatabaseItemSearchEngine.class})
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemServiceQueryCountTest {
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    TestEntityManager entityManager;
+
+    User owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = entityManager.persist(User.builder().name("owner").email("owner@mail.com").build());
+        User booker = entityManager.persist(User.builder().name("booker").email("booker@mail.com").build());
+        for (int i = 0; i < 10; i++) {
+            Item item = entityManager.persist(Item.builder().name("item" + i).description("desc")
+                    .available(Boolean.TRUE).user(owner).build());
+            entityManager.persist(Booking.builder().status(Status.APPROVED)
+                    .startTime(LocalDateTime.now().minusDays(2)).endTime(LocalDateTime.now().minusDays(1))
+                    .item(item).user(booker).build());
+            entityManager.persist(Booking.builder().status(Status.APPROVED)
+                    .startTime(LocalDateTime.now().plusDays(1)).endTime(LocalDateTime.now().plusDays(2))
+                    .item(item).user(booker).build());
+        }
+        entityManager.flush();
+    }
+
+    private long countStatements(int size) {
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemDto> items = itemService.findAllByUserId(owner.getId(), 0, size);
+        assertEquals(size, items.size());
+        items.forEach(itemDto -> {
+            assertNotNull(itemDto.getLastBooking());
+            assertNotNull(itemDto.getNextBooking());
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void findAllByUserId_givenGrowingPageSize_expectConstantQueryCount() {
+        assertEquals(countStatements(2), countStatements(10));
+    }
+}
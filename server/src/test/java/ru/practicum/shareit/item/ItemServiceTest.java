@@ -17,10 +17,12 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoUpdate;
+import ru.practicum.shareit.item.dto.VersionSummary;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
@@ -34,6 +36,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +59,9 @@ public class ItemServiceTest {
     @Mock
     ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+
     @Test
     public void getItemById_givenValidData_expectSuccess() {
         User user = User.builder().id(3L).build();
@@ -87,6 +94,34 @@ public class ItemServiceTest {
         assertEquals("desc", retrievedItem.getDescription());
     }
 
+    @Test
+    public void getItemById_givenMatchingTag_expectNullWithoutLoadingComments() {
+        User user = User.builder().id(3L).build();
+        Item item = Item.builder().id(1L).name("name").description("desc").user(user).version(2L).build();
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.summarizeByItemId(1L)).thenReturn(new VersionSummary(1L, 5L, 0L));
+
+        ItemDto retrievedItem = itemService.getItemById(1L, 1L, "item-1-2-1-5-0"::equals);
+
+        assertNull(retrievedItem);
+        verify(commentRepository, never()).findByItemId(anyLong());
+    }
+
+    @Test
+    public void getItemById_givenRequestByOwner_expectNoTag() {
+        User user = User.builder().id(3L).build();
+        Item item = Item.builder().id(1L).name("name").description("desc").user(user).build();
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemId(anyLong())).thenReturn(Collections.emptyList());
+        when(userRepository.existsById(3L)).thenReturn(true);
+
+        ItemDto retrievedItem = itemService.getItemById(1L, 3L, tag -> true);
+
+        assertNotNull(retrievedItem);
+        verify(commentRepository, never()).summarizeByItemId(anyLong());
+    }
+
     @Test
     public void getItemById_givenInvalidItemId_expectNotFound() {
         when(userRepository.existsById(3L)).thenReturn(true);
@@ -215,8 +250,7 @@ public class ItemServiceTest {
     public void findByNameOrDescription_thenSucceed() {
         List<Item> itemList = List.of(
                 Item.builder().id(10L).name("hammer").available(Boolean.TRUE).build());
-        when(itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                "hammer", "hammer", pageRequest)).thenReturn(itemList);
+        when(itemSearchEngine.search("hammer", pageRequest)).thenReturn(itemList);
         List<ItemDto> items = itemService.findByNameOrDescription("hammer", 0, 20);
         assertNotNull(items);
         assertEquals(1, items.size());
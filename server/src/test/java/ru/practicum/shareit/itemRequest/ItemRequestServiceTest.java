@@ -9,6 +9,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestService;
@@ -24,6 +25,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,7 +50,7 @@ public class ItemRequestServiceTest {
         Optional<User> userOptional = Optional.of(User.builder().id(4L).name("user").email("user@mail.com").build());
         Optional<ItemRequest> itemRequestOptional = Optional.of(ItemRequest.builder().id(5L).description("desc")
                 .created(LocalDateTime.now()).user(userOptional.get()).build());
-        when(userRepository.findById(4L)).thenReturn(userOptional);
+        when(userRepository.existsById(4L)).thenReturn(true);
         when(itemRequestRepository.findById(5L)).thenReturn(itemRequestOptional);
         ItemRequestDto itemRequestDto = itemRequestService.getItemRequestById(4L, 5L);
         assertNotNull(itemRequestDto);
@@ -58,14 +61,13 @@ public class ItemRequestServiceTest {
 
     @Test
     public void testGetItemRequestById_givenInvalidUserId_thenExpectNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
         assertThrows(NotFoundException.class, () -> itemRequestService.getItemRequestById(1L, 5L));
     }
 
     @Test
     public void testGetItemRequestById_givenInvalidRequestId_thenExpectNotFound() {
-        Optional<User> userOptional = Optional.of(User.builder().id(4L).name("user").email("user@mail.com").build());
-        when(userRepository.findById(4L)).thenReturn(userOptional);
+        when(userRepository.existsById(4L)).thenReturn(true);
         when(itemRequestRepository.findById(5L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> itemRequestService.getItemRequestById(4L, 5L));
     }
@@ -73,7 +75,7 @@ public class ItemRequestServiceTest {
     @Test
     public void testGetItemRequestsByUserId_givenValidUserId_thenSuccess() {
         Optional<User> userOptional = Optional.of(User.builder().id(4L).name("user").email("user@mail.com").build());
-        when(userRepository.findById(4L)).thenReturn(userOptional);
+        when(userRepository.existsById(4L)).thenReturn(true);
         List<ItemRequest> itemRequestList = List.of(ItemRequest.builder().description("desc").user(userOptional.get())
                 .created(LocalDateTime.now()).build());
         when(itemRequestRepository.findByUserIdOrderByCreatedAsc(4L)).thenReturn(itemRequestList);
@@ -86,7 +88,7 @@ public class ItemRequestServiceTest {
 
     @Test
     public void testGetItemRequestsByUserId_givenInvalidUserId_thenExpectNotFound() {
-        when(userRepository.findById(4L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(4L)).thenReturn(false);
         assertThrows(NotFoundException.class, () -> itemRequestService.getItemRequestsByUserId(4L));
     }
 
@@ -112,7 +114,7 @@ public class ItemRequestServiceTest {
 
     @Test
     public void testGetItemRequestsByOtherUsers_givenInvalidUserId_thenExpectNotFound() {
-        when(userRepository.findById(4L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(4L)).thenReturn(false);
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getItemRequestsByOtherUsers(4L, 0, 20));
     }
@@ -120,7 +122,7 @@ public class ItemRequestServiceTest {
     @Test
     public void testGetItemRequestsByOtherUsers_givenInvalidUserId_thenExpectSuccess() {
         Optional<User> userOptional = Optional.of(User.builder().id(4L).name("user").email("user@mail.com").build());
-        when(userRepository.findById(4L)).thenReturn(userOptional);
+        when(userRepository.existsById(4L)).thenReturn(true);
         List<ItemRequest> itemRequestList = List.of(ItemRequest.builder().id(3L).description("desc")
                 .created(LocalDateTime.now()).user(User.builder().name("name").email("name@email.com")
                         .id(2L).build()).build());
@@ -133,4 +135,25 @@ public class ItemRequestServiceTest {
         assertEquals(3, itemRequestList.get(0).getId());
         assertEquals(2, itemRequestList.get(0).getUser().getId());
     }
+
+    @Test
+    public void testGetItemRequestsByUserId_givenRequestsWithItems_thenItemsGroupedByRequest() {
+        User user = User.builder().id(4L).name("user").email("user@mail.com").build();
+        when(userRepository.existsById(4L)).thenReturn(true);
+        ItemRequest first = ItemRequest.builder().id(1L).description("first").user(user)
+                .created(LocalDateTime.now()).build();
+        ItemRequest second = ItemRequest.builder().id(2L).description("second").user(user)
+                .created(LocalDateTime.now()).build();
+        when(itemRequestRepository.findByUserIdOrderByCreatedAsc(4L)).thenReturn(List.of(first, second));
+        when(itemRepository.findByItemRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                Item.builder().id(7L).name("item1").itemRequest(first).build(),
+                Item.builder().id(8L).name("item2").itemRequest(first).build()));
+
+        List<ItemRequestDto> itemRequestDtoList = itemRequestService.getItemRequestsByUserId(4L);
+
+        assertEquals(2, itemRequestDtoList.size());
+        assertEquals(2, itemRequestDtoList.get(0).getItems().size());
+        assertEquals(0, itemRequestDtoList.get(1).getItems().size());
+        verify(itemRepository, times(1)).findByItemRequestIdIn(List.of(1L, 2L));
+    }
 }
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -22,6 +23,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -57,6 +59,21 @@ public class UserControllerTest {
         assertEquals(response, objectMapper.writeValueAsString(users));
     }
 
+    @SneakyThrows
+    @Test
+    public void getUser_whenETagMatches_thenNotModifiedWithoutBody() {
+        when(userService.getUserTag(1L)).thenReturn("user-1-0");
+        String response = mockMvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"user-1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"user-1-0\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        verify(userService, never()).getUserById(anyLong());
+        assertEquals("", response);
+    }
+
     @SneakyThrows
     @Test
     public void getUser_whenInvokedWithValidId_thenReturnOkWithUser() {
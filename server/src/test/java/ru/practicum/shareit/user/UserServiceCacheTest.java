@@ -0,0 +1,65 @@
+package ru.practicum.shareit.user;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({CacheConfig.class, UserService.class})
+@TestPropertySource(properties = "shareit.cache.users.spec=maximumSize=100,expireAfterWrite=1m,recordStats")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserServiceCacheTest {
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @MockBean
+    UserRepository userRepository;
+
+    @MockBean
+    ItemSearchEngine itemSearchEngine;
+
+    @Test
+    public void getUserById_whenCalledTwice_thenRepositoryHitOnce() {
+        User user = User.builder().id(1L).email("name@mail.com").name("name").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        UserDto first = userService.getUserById(1L);
+        UserDto second = userService.getUserById(1L);
+
+        assertEquals(first, second);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void deleteUserById_whenUserCached_thenCacheEvicted() {
+        User user = User.builder().id(2L).email("other@mail.com").name("other").build();
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user));
+        userService.getUserById(2L);
+        cacheManager.getCache(CacheConfig.USER_EXISTS_CACHE).put(2L, true);
+
+        userService.deleteUserById(2L);
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(2L));
+        assertNull(cacheManager.getCache(CacheConfig.USER_EXISTS_CACHE).get(2L));
+    }
+}
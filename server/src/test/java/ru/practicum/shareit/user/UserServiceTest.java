@@ -8,6 +8,7 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoUpdate;
 import ru.practicum.shareit.user.model.User;
@@ -30,6 +31,9 @@ public class UserServiceTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+
     @Captor
     ArgumentCaptor<User> userArgumentCaptor;
 
@@ -73,6 +77,7 @@ public class UserServiceTest {
         doNothing().when(userRepository).deleteById(anyLong());
 
         assertDoesNotThrow(() -> userService.deleteUserById(1L));
+        verify(itemSearchEngine).removeByOwner(1L);
     }
 
     @Test